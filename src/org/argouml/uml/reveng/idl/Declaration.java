@@ -0,0 +1,73 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+/**
+ * A named IDL declaration as recognised by the parser.
+ * <p>
+ * Declarations form an immutable tree which doesn't refer to the UML model,
+ * so they can be built on any thread and applied to the model later by a
+ * {@link DeclarationApplier}.  The {@link ParseCache} keeps them in the
+ * form written by {@link DeclarationFormat}.
+ */
+abstract class Declaration {
+
+    private final String name;
+    private final SourcePosition position;
+    private final String documentation;
+
+    /**
+     * @param name the simple name of the declaration
+     * @param position where the declaration starts in its source file
+     */
+    Declaration(String name, SourcePosition position) {
+        this(name, position, null);
+    }
+
+    /**
+     * @param name the simple name of the declaration
+     * @param position where the declaration starts in its source file
+     * @param documentation the documentation comment in front of the
+     *                      declaration, or null
+     */
+    Declaration(String name, SourcePosition position, String documentation) {
+        this.name = name;
+        this.position = position;
+        this.documentation = documentation;
+    }
+
+    /**
+     * @return the simple name of the declaration
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return where the declaration starts in its source file
+     */
+    public SourcePosition getPosition() {
+        return position;
+    }
+
+    /**
+     * @return the documentation comment in front of the declaration,
+     *         including its delimiters, or null if there is none
+     */
+    public String getDocumentation() {
+        return documentation;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + name + " at " + position;
+    }
+}
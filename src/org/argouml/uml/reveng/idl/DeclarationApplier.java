@@ -0,0 +1,186 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.argouml.uml.util.namespace.StringNamespace;
+
+/**
+ * Replays a {@link Specification} into a {@link DeclarationHandler},
+ * normally a {@link Modeler}.
+ * <p>
+ * The calls are the same, and made in the same order, as those the grammar
+ * actions used to make while parsing.
+ */
+class DeclarationApplier {
+
+    private final DeclarationHandler handler;
+
+    private final StringNamespace namespace = new StringNamespace(".");
+
+    private final Set<Declaration> skipped = new HashSet<Declaration>();
+
+    /**
+     * @param theHandler the handler to receive the declarations
+     */
+    DeclarationApplier(DeclarationHandler theHandler) {
+        handler = theHandler;
+    }
+
+    /**
+     * Leave out a declaration, e.g. because the model is already up to date
+     * with it.
+     *
+     * @param declaration the declaration not to apply
+     */
+    public void skip(Declaration declaration) {
+        skipped.add(declaration);
+    }
+
+    /**
+     * Apply all declarations of a source file.
+     *
+     * @param specification the parsed source file
+     */
+    public void apply(Specification specification) {
+        begin();
+        for (Declaration declaration : specification.getDefinitions()) {
+            apply(declaration);
+        }
+    }
+
+    /**
+     * Only create the component of a source file and place it like
+     * {@link #apply(Specification)} does, e.g. for a copy of a file which
+     * has been applied already.  The classifiers aren't applied again, so
+     * they stay resident in the component they were first applied to,
+     * which is also where applying them again would leave them.
+     *
+     * @param specification the parsed source file
+     */
+    public void applyComponent(Specification specification) {
+        begin();
+        for (Declaration declaration : specification.getDefinitions()) {
+            applyModules(declaration);
+        }
+    }
+
+    private void applyModules(Declaration declaration) {
+        if (declaration instanceof ModuleDeclaration) {
+            beginModule(declaration.getName());
+            for (Declaration nested
+                    : ((ModuleDeclaration) declaration).getDefinitions()) {
+                applyModules(nested);
+            }
+            endModule();
+        }
+    }
+
+    /**
+     * Start a source file whose declarations are applied one by one.
+     */
+    void begin() {
+        handler.addComponent();
+    }
+
+    /**
+     * Enter a module whose declarations are applied one by one.
+     *
+     * @param name the simple name of the module
+     */
+    void beginModule(String name) {
+        namespace.pushNamespaceElement(name);
+        handler.addPackage(namespace.toString());
+    }
+
+    /**
+     * Leave the module entered last.
+     */
+    void endModule() {
+        namespace.popNamespaceElement();
+    }
+
+    /**
+     * Apply a single declaration in the current module.
+     *
+     * @param declaration the declaration to apply
+     */
+    void apply(Declaration declaration) {
+        if (skipped.contains(declaration)) {
+            return;
+        }
+        if (declaration instanceof ModuleDeclaration) {
+            applyModule((ModuleDeclaration) declaration);
+        } else if (declaration instanceof InterfaceDeclaration) {
+            applyInterface((InterfaceDeclaration) declaration);
+        } else if (declaration instanceof OperationDeclaration) {
+            applyOperation((OperationDeclaration) declaration);
+        }
+    }
+
+    private void applyModule(ModuleDeclaration module) {
+        beginModule(module.getName());
+        for (Declaration declaration : module.getDefinitions()) {
+            apply(declaration);
+        }
+        endModule();
+    }
+
+    private void applyInterface(InterfaceDeclaration interf) {
+        handler.addClass(interf.getName(), IDLParser.MOD_PUBLIC,
+                getSuperclassName(interf.getInheritedInterfaces()), null,
+                interf.getDocumentation(), interf.getPosition());
+        for (Declaration declaration : interf.getExports()) {
+            apply(declaration);
+        }
+        handler.popClassifier();
+    }
+
+    private void applyOperation(OperationDeclaration operation) {
+        // TODO: Types aren't resolved against the model yet, so the return
+        // and parameter types are passed on as void, as they always were.
+        List<ParameterDeclaration> parameters =
+            new ArrayList<ParameterDeclaration>();
+        for (ParameterDeclaration parameter : operation.getParameters()) {
+            parameters.add(new ParameterDeclaration((short) 0, "void",
+                    parameter.getName()));
+        }
+        handler.addOperation(IDLParser.MOD_PUBLIC, "void",
+                operation.getName(), parameters,
+                operation.getDocumentation(), operation.getPosition());
+    }
+
+    /**
+     * Get the name passed to the Modeler as the superclass of an interface.
+     * <p>
+     * TODO: This keeps the historical behaviour of the grammar, which only
+     * passed the last part of the first inherited name and only when that
+     * name was qualified.  Inheritance needs to be modeled properly.
+     */
+    private String getSuperclassName(List<String> inheritedInterfaces) {
+        if (inheritedInterfaces.isEmpty()) {
+            return null;
+        }
+        String name = inheritedInterfaces.get(0);
+        if (name.startsWith("::")) {
+            name = name.substring(2);
+        }
+        int lastScope = name.lastIndexOf("::");
+        if (lastScope == -1) {
+            return null;
+        }
+        return name.substring(lastScope + 2);
+    }
+}
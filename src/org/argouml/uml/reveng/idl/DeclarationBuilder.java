@@ -0,0 +1,241 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * Collects the declarations reported by the parser actions into an immutable
+ * {@link Specification}.
+ * <p>
+ * Modules and interfaces are opened and closed by the parser; declarations
+ * reported in between become their children.  When the parser recovers from
+ * a syntax error it may skip the close of an interface, so scopes are closed
+ * by kind and any still open at the end are closed then.
+ * <p>
+ * When streaming, the declarations are handed to a {@link DeclarationApplier}
+ * as soon as they are complete instead: modules as they are opened and
+ * closed, top level interfaces as they are closed.  Only the interface
+ * being parsed is held in memory, and the specification stays empty.
+ */
+class DeclarationBuilder {
+
+    /**
+     * An open module or interface whose children are still being parsed.
+     */
+    private static class Scope {
+        private final boolean module;
+        private final String name;
+        private final SourcePosition position;
+        private final List<String> inheritedInterfaces;
+        private final String documentation;
+        private final List<Declaration> children =
+            new ArrayList<Declaration>();
+
+        Scope(boolean isModule, String theName, SourcePosition thePosition,
+                List<String> inherited, String theDocumentation) {
+            module = isModule;
+            name = theName;
+            position = thePosition;
+            inheritedInterfaces = inherited;
+            documentation = theDocumentation;
+        }
+    }
+
+    private final String fileName;
+
+    private final List<Declaration> definitions = new ArrayList<Declaration>();
+
+    private final Stack<Scope> scopes = new Stack<Scope>();
+
+    private final DeclarationApplier applier;
+
+    private SymbolTable symbols;
+
+    /**
+     * @param theFileName the name of the file being parsed, may be null
+     */
+    DeclarationBuilder(String theFileName) {
+        this(theFileName, null);
+    }
+
+    /**
+     * @param theFileName the name of the file being parsed, may be null
+     * @param theApplier the applier to stream the declarations to, or null
+     *                   to collect them
+     */
+    DeclarationBuilder(String theFileName, DeclarationApplier theApplier) {
+        fileName = theFileName;
+        applier = theApplier;
+    }
+
+    /**
+     * Share the names kept in the declarations with other files.
+     *
+     * @param table the pool of identifiers of the import, or null
+     */
+    void setSymbolTable(SymbolTable table) {
+        symbols = table;
+    }
+
+    private String intern(String name) {
+        return symbols == null ? name : symbols.intern(name);
+    }
+
+    private List<String> intern(List<String> names) {
+        List<String> result = new ArrayList<String>(names.size());
+        for (String name : names) {
+            result.add(intern(name));
+        }
+        return result;
+    }
+
+    /**
+     * Open a module.
+     *
+     * @param name the simple name of the module
+     * @param position where the module starts
+     */
+    public void beginModule(String name, SourcePosition position) {
+        scopes.push(new Scope(true, intern(name), position, null, null));
+        if (applier != null) {
+            applier.beginModule(name);
+        }
+    }
+
+    /**
+     * Close the module opened last.
+     */
+    public void endModule() {
+        while (!scopes.isEmpty()) {
+            Scope scope = scopes.peek();
+            close();
+            if (scope.module) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Open an interface.
+     *
+     * @param name the simple name of the interface
+     * @param position where the interface starts
+     * @param inheritedInterfaces the scoped names of the inherited interfaces
+     * @param documentation the documentation comment, or null
+     */
+    public void beginInterface(String name, SourcePosition position,
+            List<String> inheritedInterfaces, String documentation) {
+        scopes.push(new Scope(false, intern(name), position,
+                intern(inheritedInterfaces), documentation));
+    }
+
+    /**
+     * Close the interface opened last.
+     */
+    public void endInterface() {
+        if (!scopes.isEmpty() && !scopes.peek().module) {
+            close();
+        }
+    }
+
+    /**
+     * @return the number of modules and interfaces open
+     */
+    int getDepth() {
+        return scopes.size();
+    }
+
+    /**
+     * Close the modules and interfaces a definition left open when the
+     * parser gave up on it, keeping what it declared so far.
+     *
+     * @param depth the number of scopes open before the definition
+     */
+    void closeScopes(int depth) {
+        while (scopes.size() > depth) {
+            close();
+        }
+    }
+
+    private void close() {
+        Scope scope = scopes.pop();
+        if (applier != null) {
+            if (scope.module) {
+                applier.endModule();
+                return;
+            }
+            if (scopes.isEmpty() || scopes.peek().module) {
+                applier.apply(new InterfaceDeclaration(scope.name,
+                        scope.position, scope.inheritedInterfaces,
+                        scope.children, scope.documentation));
+                return;
+            }
+        }
+        if (scope.module) {
+            add(new ModuleDeclaration(scope.name, scope.position,
+                    scope.children));
+        } else {
+            add(new InterfaceDeclaration(scope.name, scope.position,
+                    scope.inheritedInterfaces, scope.children,
+                    scope.documentation));
+        }
+    }
+
+    /**
+     * Add an operation to the open interface.
+     *
+     * @param name the name of the operation
+     * @param position where the operation starts
+     * @param oneway true for a oneway operation
+     * @param returnType the return type
+     * @param parameters the parameters
+     * @param raises the scoped names of the exceptions raised
+     * @param documentation the documentation comment, or null
+     */
+    public void addOperation(String name, SourcePosition position,
+            boolean oneway, String returnType,
+            List<ParameterDeclaration> parameters, List<String> raises,
+            String documentation) {
+        List<ParameterDeclaration> params = parameters;
+        if (symbols != null) {
+            params = new ArrayList<ParameterDeclaration>(parameters.size());
+            for (ParameterDeclaration parameter : parameters) {
+                params.add(new ParameterDeclaration(
+                        parameter.getModifiers(),
+                        symbols.intern(parameter.getType()),
+                        symbols.intern(parameter.getName())));
+            }
+        }
+        add(new OperationDeclaration(intern(name), position, oneway,
+                intern(returnType), params, intern(raises), documentation));
+    }
+
+    private void add(Declaration declaration) {
+        if (scopes.isEmpty()) {
+            definitions.add(declaration);
+        } else {
+            scopes.peek().children.add(declaration);
+        }
+    }
+
+    /**
+     * @return the specification built from all top level declarations
+     */
+    public Specification getSpecification() {
+        while (!scopes.isEmpty()) {
+            close();
+        }
+        return new Specification(fileName, definitions);
+    }
+}
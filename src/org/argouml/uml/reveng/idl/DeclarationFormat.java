@@ -0,0 +1,220 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A plain binary form of declarations, for the parse cache.
+ * <p>
+ * Only the declaration classes of this package are written and read, so
+ * unlike Java serialization a tampered cache entry can't make the reader
+ * instantiate anything else.  A declaration is written as a tag byte
+ * followed by its fields; strings are written as their length, or -1 for
+ * null, followed by their chars, so they may be of any length.
+ */
+final class DeclarationFormat {
+
+    private static final byte MODULE = 1;
+
+    private static final byte INTERFACE = 2;
+
+    private static final byte OPERATION = 3;
+
+    /**
+     * The most declarations or names a list is believed to hold, to fail
+     * early on a corrupt entry instead of running out of memory.
+     */
+    private static final int MAX_LENGTH = 1 << 24;
+
+    private DeclarationFormat() {
+    }
+
+    /**
+     * Write a list of declarations and everything they contain.
+     *
+     * @param out where to write
+     * @param declarations the declarations to write
+     * @param positions false to leave out the source positions, which gives
+     *                  the same bytes for declarations that only moved
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput out, List<Declaration> declarations,
+            boolean positions) throws IOException {
+        out.writeInt(declarations.size());
+        for (Declaration declaration : declarations) {
+            write(out, declaration, positions);
+        }
+    }
+
+    /**
+     * Write one declaration and everything it contains.
+     *
+     * @param out where to write
+     * @param declaration the declaration to write
+     * @param positions false to leave out the source positions
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput out, Declaration declaration,
+            boolean positions) throws IOException {
+        if (declaration instanceof ModuleDeclaration) {
+            out.writeByte(MODULE);
+        } else if (declaration instanceof InterfaceDeclaration) {
+            out.writeByte(INTERFACE);
+        } else if (declaration instanceof OperationDeclaration) {
+            out.writeByte(OPERATION);
+        } else {
+            throw new IOException("Unknown declaration " + declaration);
+        }
+        writeString(out, declaration.getName());
+        if (positions) {
+            out.writeInt(declaration.getPosition().getLine());
+            out.writeInt(declaration.getPosition().getColumn());
+        }
+        writeString(out, declaration.getDocumentation());
+        if (declaration instanceof ModuleDeclaration) {
+            write(out, ((ModuleDeclaration) declaration).getDefinitions(),
+                    positions);
+        } else if (declaration instanceof InterfaceDeclaration) {
+            InterfaceDeclaration iface = (InterfaceDeclaration) declaration;
+            writeStrings(out, iface.getInheritedInterfaces());
+            write(out, iface.getExports(), positions);
+        } else {
+            OperationDeclaration operation =
+                (OperationDeclaration) declaration;
+            out.writeBoolean(operation.isOneway());
+            writeString(out, operation.getReturnType());
+            out.writeInt(operation.getParameters().size());
+            for (ParameterDeclaration parameter : operation.getParameters()) {
+                out.writeShort(parameter.getModifiers());
+                writeString(out, parameter.getType());
+                writeString(out, parameter.getName());
+            }
+            writeStrings(out, operation.getRaises());
+        }
+    }
+
+    /**
+     * Read a list of declarations written with their positions.
+     *
+     * @param in where to read from
+     * @return the declarations
+     * @throws IOException if reading fails or the data is not valid
+     */
+    static List<Declaration> read(DataInput in) throws IOException {
+        int count = readLength(in);
+        List<Declaration> declarations = new ArrayList<Declaration>(count);
+        for (int i = 0; i < count; i++) {
+            declarations.add(readDeclaration(in));
+        }
+        return declarations;
+    }
+
+    private static Declaration readDeclaration(DataInput in)
+        throws IOException {
+        byte tag = in.readByte();
+        String name = readString(in);
+        SourcePosition position =
+            new SourcePosition(in.readInt(), in.readInt());
+        String documentation = readString(in);
+        switch (tag) {
+        case MODULE:
+            return new ModuleDeclaration(name, position, read(in));
+        case INTERFACE:
+            List<String> inherited = readStrings(in);
+            return new InterfaceDeclaration(name, position, inherited,
+                    read(in), documentation);
+        case OPERATION:
+            boolean oneway = in.readBoolean();
+            String returnType = readString(in);
+            int count = readLength(in);
+            List<ParameterDeclaration> parameters =
+                new ArrayList<ParameterDeclaration>(count);
+            for (int i = 0; i < count; i++) {
+                short modifiers = in.readShort();
+                String type = readString(in);
+                parameters.add(new ParameterDeclaration(modifiers, type,
+                        readString(in)));
+            }
+            return new OperationDeclaration(name, position, oneway,
+                    returnType, parameters, readStrings(in), documentation);
+        default:
+            throw new IOException("Unknown declaration tag " + tag);
+        }
+    }
+
+    private static void writeStrings(DataOutput out, List<String> strings)
+        throws IOException {
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int count = readLength(in);
+        List<String> strings = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    /**
+     * Write a string which may be null.
+     *
+     * @param out where to write
+     * @param s the string, or null
+     * @throws IOException if writing fails
+     */
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(s.length());
+            out.writeChars(s);
+        }
+    }
+
+    /**
+     * Read a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in where to read from
+     * @return the string, or null
+     * @throws IOException if reading fails or the data is not valid
+     */
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Invalid string length " + length);
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.readChar();
+        }
+        return new String(chars);
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new IOException("Invalid list length " + length);
+        }
+        return length;
+    }
+}
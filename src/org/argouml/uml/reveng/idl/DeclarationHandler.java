@@ -0,0 +1,68 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.List;
+
+/**
+ * Receives the declarations recognised by the IDL parser in source order.
+ * <p>
+ * {@link Modeler} implements this to build UML model elements directly, while
+ * {@link DeferredDeclarations} records the calls so that they can be replayed
+ * into a Modeler later, e.g. after parsing on a worker thread.
+ */
+interface DeclarationHandler {
+
+    /**
+     * Called once before any declaration of a source file.
+     */
+    void addComponent();
+
+    /**
+     * Called when a module is entered.
+     *
+     * @param name the fully qualified name of the module
+     */
+    void addPackage(String name);
+
+    /**
+     * Called when an interface declaration is found.
+     *
+     * @param name The name of the interface.
+     * @param modifiers A bitmask of modifiers.
+     * @param superclassName The name of the inherited interface or null.
+     * @param interfaces Zero or more names of realized interfaces or null.
+     * @param javadoc The documentation comment or null.
+     * @param position Where the interface is declared, or null.
+     */
+    void addClass(String name, short modifiers, String superclassName,
+            List<String> interfaces, String javadoc, SourcePosition position);
+
+    /**
+     * Called when the interface which was added last is completely parsed.
+     */
+    void popClassifier();
+
+    /**
+     * Called when an operation is found.
+     *
+     * @param modifiers A bitmask of modifiers.
+     * @param returnType The return type of the operation.
+     * @param name The name of the operation.
+     * @param parameters The parameter declarations.
+     * @param javadoc The documentation comment or null.
+     * @param position Where the operation is declared, or null.
+     * @return The operation, if the handler creates one, else null.
+     */
+    Object addOperation(short modifiers, String returnType, String name,
+            List<ParameterDeclaration> parameters, String javadoc,
+            SourcePosition position);
+}
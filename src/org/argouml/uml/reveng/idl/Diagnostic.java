@@ -0,0 +1,115 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import antlr.RecognitionException;
+import antlr.TokenStreamRecognitionException;
+
+/**
+ * A problem found in a file during an import: a syntax error the parser
+ * recovered from, or the reason a file couldn't be imported at all.
+ */
+public final class Diagnostic {
+
+    private final String fileName;
+    private final int line;
+    private final int column;
+    private final String message;
+
+    /**
+     * @param theFileName the name of the file
+     * @param theLine the line number, starting at 1, or 0 if not known
+     * @param theColumn the column number, starting at 1, or 0 if not known
+     * @param theMessage what is wrong
+     */
+    Diagnostic(String theFileName, int theLine, int theColumn,
+            String theMessage) {
+        fileName = theFileName;
+        line = theLine;
+        column = theColumn;
+        message = theMessage;
+    }
+
+    /**
+     * Describe the exception a file failed with, taking the position from
+     * the syntax error it was caused by, if any.
+     *
+     * @param fileName the name of the file
+     * @param problem the exception, e.g. an ImportException
+     * @return the diagnostic
+     */
+    static Diagnostic create(String fileName, Throwable problem) {
+        Throwable cause = problem;
+        while (true) {
+            if (cause instanceof TokenStreamRecognitionException) {
+                cause = ((TokenStreamRecognitionException) cause).recog;
+            }
+            if (cause instanceof RecognitionException) {
+                RecognitionException e = (RecognitionException) cause;
+                return new Diagnostic(fileName, Math.max(e.getLine(), 0),
+                        Math.max(e.getColumn(), 0), e.getMessage());
+            }
+            if (cause.getCause() == null) {
+                break;
+            }
+            cause = cause.getCause();
+        }
+        String text = cause.getMessage();
+        return new Diagnostic(fileName, 0, 0,
+                text == null ? cause.toString() : text);
+    }
+
+    /**
+     * @return the name of the file
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return the line number, starting at 1, or 0 if not known
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the column number, starting at 1, or 0 if not known
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * @return what is wrong
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Copy the diagnostic for another file with the same contents.
+     *
+     * @param otherFileName the name of the other file
+     * @return the copy
+     */
+    Diagnostic forFile(String otherFileName) {
+        return new Diagnostic(otherFileName, line, column, message);
+    }
+
+    @Override
+    public String toString() {
+        if (line == 0) {
+            return fileName + ": " + message;
+        }
+        return fileName + ":" + line + ":" + column + ": " + message;
+    }
+}
@@ -0,0 +1,179 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import antlr.Token;
+
+/**
+ * The documentation comments of a source file, kept aside by the lexer
+ * while it skips them.
+ * <p>
+ * A <code>/** ... *&#47;</code> comment is attached to the token which
+ * follows it, and the parser looks it up by the first token of a
+ * declaration.  Comments followed by anything other than a declaration are
+ * dropped.  The comment text is taken when the lexer skips it, so the
+ * source isn't scanned for comments again.
+ * <p>
+ * The parser asks for a comment as soon as the first token of a
+ * declaration is in its lookahead, so only the comments of the last few
+ * tokens are kept.  Memory use doesn't grow with the file.
+ */
+final class DocComments {
+
+    /**
+     * The number of comments kept, well above the parser's lookahead.
+     */
+    private static final int CAPACITY = 16;
+
+    private String pending;
+
+    private final Token[] tokens = new Token[CAPACITY];
+
+    private final String[] comments = new String[CAPACITY];
+
+    /*
+     * The positions of the tokens, as a token may be recycled for another
+     * one further on.
+     */
+    private final int[] lines = new int[CAPACITY];
+
+    private final int[] columns = new int[CAPACITY];
+
+    private int next;
+
+    /**
+     * Tell whether a comment is a documentation comment.
+     *
+     * @param chars the buffer holding the comment
+     * @param start the index of the opening slash
+     * @param end the index after the closing slash
+     * @return true if the comment starts with two stars, but isn't just
+     *         <code>/**&#47;</code>
+     */
+    static boolean isDocComment(char[] chars, int start, int end) {
+        return end - start > 4 && chars[start + 2] == '*';
+    }
+
+    /**
+     * Keep a documentation comment for the next token.  A later comment
+     * replaces it.
+     *
+     * @param comment the whole comment including its delimiters
+     */
+    void add(String comment) {
+        pending = comment;
+    }
+
+    /**
+     * Attach the comment kept last, if any, to a token.
+     *
+     * @param token the next token after the comment, with its position
+     *              already set
+     */
+    void attach(Token token) {
+        if (pending != null) {
+            tokens[next] = token;
+            comments[next] = pending;
+            lines[next] = token.getLine();
+            columns[next] = token.getColumn();
+            next = (next + 1) % CAPACITY;
+            pending = null;
+        }
+    }
+
+    /**
+     * @param token the first token of a declaration
+     * @return the documentation comment in front of the token, or null
+     */
+    String get(Token token) {
+        for (int i = 0; i < CAPACITY; i++) {
+            int index = (next + CAPACITY - 1 - i) % CAPACITY;
+            if (tokens[index] == token) {
+                if (lines[index] == token.getLine()
+                        && columns[index] == token.getColumn()) {
+                    return comments[index];
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the text of a documentation comment without its delimiters and
+     * the stars at the start of its lines.  A line keeps the white space
+     * after its star, and the lines keep their newlines.
+     * <p>
+     * This is done in one pass, appending each line as it is found.
+     *
+     * @param comment the whole comment including its delimiters
+     * @return the text, or null if the comment is too short to hold any
+     */
+    static String getText(CharSequence comment) {
+        int length = comment.length();
+        int first = 0;
+        while (first < length && comment.charAt(first) <= ' ') {
+            first++;
+        }
+        int last = length;
+        while (last > first && comment.charAt(last - 1) <= ' ') {
+            last--;
+        }
+        if (last - first < "/***/".length()) {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder(length);
+        // skip the leading /**
+        int pos = 3;
+        boolean hadAsterisk = true;
+        while (pos < length) {
+            char c = comment.charAt(pos);
+            if (c == '*') {
+                hadAsterisk = true;
+                pos++;
+            } else if ((c == ' ' || c == '\t') && !hadAsterisk) {
+                // white space before the star of a line
+                pos++;
+            } else {
+                // the rest of the line, unless it is blank
+                int j = pos;
+                while (j < length
+                        && (comment.charAt(j) == ' '
+                            || comment.charAt(j) == '\t')) {
+                    j++;
+                }
+                if (j < length) {
+                    while (pos < length) {
+                        c = comment.charAt(pos++);
+                        text.append(c);
+                        if (c == '\n') {
+                            break;
+                        }
+                    }
+                }
+                hadAsterisk = false;
+            }
+        }
+
+        // the slash of the closing delimiter is left, maybe on a line of
+        // its own
+        int end = text.length();
+        if (end >= 2 && text.charAt(end - 2) == '\n'
+                && text.charAt(end - 1) == '/') {
+            text.setLength(end - 2);
+        } else if (end >= 1 && text.charAt(end - 1) == '/') {
+            text.setLength(end - 1);
+        }
+        return text.toString();
+    }
+}
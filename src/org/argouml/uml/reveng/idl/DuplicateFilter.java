@@ -0,0 +1,132 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.argouml.uml.reveng.ImportInterface.ImportException;
+
+/**
+ * Makes sure that byte-identical files are parsed and applied only once
+ * per import, e.g. the same vendored <code>orb.idl</code> copied into
+ * several directories.
+ * <p>
+ * Files are told apart by the hash of their contents.  The first file with
+ * some contents to be parsed does the work; the others wait for its result.
+ * Only the first copy in import order is applied to the model, so the model
+ * doesn't depend on which thread parsed first.
+ */
+final class DuplicateFilter {
+
+    private final ConcurrentMap<String, FutureTask<Specification>> parses =
+        new ConcurrentHashMap<String, FutureTask<Specification>>();
+
+    private final ConcurrentMap<String, AtomicLong> costs =
+        new ConcurrentHashMap<String, AtomicLong>();
+
+    private final Set<String> applied = new HashSet<String>();
+
+    private int duplicates;
+
+    private long savedTime;
+
+    /**
+     * Parse some contents, unless the same contents are already being
+     * parsed.  This may be called from any thread.
+     *
+     * @param key the hash of the contents
+     * @param parse the task which parses the contents, it isn't run if the
+     *              contents are already being parsed
+     * @return the declarations of the contents
+     * @throws ImportException if the contents can't be parsed
+     */
+    Specification parse(String key, FutureTask<Specification> parse)
+        throws ImportException {
+        FutureTask<Specification> first = parses.putIfAbsent(key, parse);
+        if (first == null) {
+            long start = System.nanoTime();
+            parse.run();
+            addCost(key, System.nanoTime() - start);
+            first = parse;
+        }
+        try {
+            return first.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ImportException) {
+                throw (ImportException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ImportException("Parser failure", e.getCause());
+        }
+    }
+
+    /**
+     * Check whether contents are to be applied to the model, or whether an
+     * identical file has been applied already.  This must be called on the
+     * thread which owns the model, in import order.
+     *
+     * @param key the hash of the contents
+     * @return true for the first file with these contents
+     */
+    boolean isFirst(String key) {
+        if (applied.add(key)) {
+            return true;
+        }
+        duplicates++;
+        AtomicLong cost = costs.get(key);
+        if (cost != null) {
+            savedTime += cost.get();
+        }
+        return false;
+    }
+
+    /**
+     * Record time spent on some contents, which is saved for each copy.
+     *
+     * @param key the hash of the contents
+     * @param nanos the time spent in nanoseconds
+     */
+    void addCost(String key, long nanos) {
+        AtomicLong cost = costs.get(key);
+        if (cost == null) {
+            costs.putIfAbsent(key, new AtomicLong());
+            cost = costs.get(key);
+        }
+        cost.addAndGet(nanos);
+    }
+
+    /**
+     * @return the number of files skipped as copies of another file
+     */
+    int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return the time the copies would have taken to parse and apply, in
+     *         nanoseconds
+     */
+    long getSavedTime() {
+        return savedTime;
+    }
+}
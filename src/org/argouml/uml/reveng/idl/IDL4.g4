@@ -0,0 +1,834 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+/*
+ * The CORBA 3.0.2 IDL grammar of idl_modified.g for ANTLR 4.
+ *
+ * The rules are the same as there, without the tree operators, the actions
+ * and the predicates, which ANTLR 4's adaptive prediction doesn't need.
+ * The declarations are taken from the parse tree by an
+ * IDL4DeclarationListener.  The package is given by the directory, both by
+ * the Maven plugin and on the command line with -package.
+ *
+ * White space, single line comments and preprocessor directives are
+ * skipped.  Multi line comments go to the hidden channel, where the
+ * documentation comments of declarations are looked up.
+ */
+grammar IDL4;
+
+specification
+    :   import_dcl* definition+ EOF
+    ;
+
+definition
+    :   (   type_dcl SEMI
+        |   const_dcl SEMI
+        |   except_dcl SEMI
+        |   interf SEMI
+        |   module SEMI
+        |   value SEMI
+        |   type_id_dcl SEMI
+        |   type_prefix_dcl SEMI
+        |   event SEMI
+        |   component SEMI
+        |   home_dcl SEMI
+        )
+    ;
+
+module
+    :   'module' identifier LCURLY definition+ RCURLY
+    ;
+
+interf
+    :   ( 'abstract' | 'local' )? 'interface' identifier
+        interface_dcl?
+    ;
+
+interface_dcl
+    :   interface_header LCURLY export* RCURLY
+    ;
+
+interface_header
+    :   interface_inheritance_spec?
+    ;
+
+export
+    :   (   type_dcl SEMI
+        |   const_dcl SEMI
+        |   except_dcl SEMI
+        |   attr_dcl SEMI
+        |   op_dcl SEMI
+        |   type_id_dcl SEMI
+        |   type_prefix_dcl SEMI
+        )
+    ;
+
+interface_inheritance_spec
+    :   COLON scoped_name_list
+    ;
+
+interface_name
+    :   scoped_name
+    ;
+
+scoped_name_list
+    :   scoped_name ( COMMA scoped_name )*
+    ;
+
+scoped_name
+    :   SCOPEOP? identifier ( SCOPEOP identifier )*
+    ;
+
+value
+    :   value_dcl
+    |   value_abs_dcl
+    |   value_box_dcl
+    |   value_custom_dcl
+    |   value_forward_dcl
+    ;
+
+value_forward_dcl
+    :   'valuetype' identifier
+    ;
+
+value_box_dcl
+    :   'valuetype' identifier type_spec
+    ;
+
+value_abs_dcl
+    :   'abstract' 'valuetype' identifier value_abs_full_dcl?
+    ;
+
+value_abs_full_dcl
+    :   value_inheritance_spec LCURLY export* RCURLY
+    ;
+
+value_dcl
+    :   value_header LCURLY value_element* RCURLY
+    ;
+
+value_custom_dcl
+    :   'custom' value_dcl
+    ;
+
+value_header
+    :   'valuetype' identifier value_inheritance_spec
+    ;
+
+value_inheritance_spec
+    :   value_value_inheritance_spec? value_interface_inheritance_spec?
+    ;
+
+value_value_inheritance_spec
+    :   COLON 'truncatable'? value_name ( COMMA value_name )*
+    ;
+
+value_interface_inheritance_spec
+    :   'supports' interface_name ( COMMA interface_name )*
+    ;
+
+value_name
+    :   scoped_name
+    ;
+
+value_element
+    :   export
+    |   state_member
+    |   init_dcl
+    ;
+
+state_member
+    :   ( 'public' | 'private' ) type_spec declarators SEMI
+    ;
+
+init_dcl
+    :   'factory' identifier LPAREN init_param_decls? RPAREN raises_expr? SEMI
+    ;
+
+init_param_decls
+    :   init_param_decl ( COMMA init_param_decl )*
+    ;
+
+init_param_decl
+    :   init_param_attribute param_type_spec simple_declarator
+    ;
+
+init_param_attribute
+    :   'in'
+    ;
+
+const_dcl
+    :   'const' const_type identifier ASSIGN const_exp
+    ;
+
+const_type
+    :   integer_type
+    |   char_type
+    |   wide_char_type
+    |   boolean_type
+    |   floating_pt_type
+    |   string_type
+    |   wide_string_type
+    |   fixed_pt_const_type
+    |   scoped_name
+    |   octet_type
+    ;
+
+/*   EXPRESSIONS   */
+
+const_exp
+    :   or_expr
+    ;
+
+or_expr
+    :   xor_expr ( OR xor_expr )*
+    ;
+
+xor_expr
+    :   and_expr ( XOR and_expr )*
+    ;
+
+and_expr
+    :   shift_expr ( AND shift_expr )*
+    ;
+
+shift_expr
+    :   add_expr ( ( LSHIFT | RSHIFT ) add_expr )*
+    ;
+
+add_expr
+    :   mult_expr ( ( PLUS | MINUS ) mult_expr )*
+    ;
+
+mult_expr
+    :   unary_expr ( ( STAR | DIV | MOD ) unary_expr )*
+    ;
+
+unary_expr
+    :   ( MINUS | PLUS | TILDE ) primary_expr
+    |   primary_expr
+    ;
+
+primary_expr
+    :   scoped_name
+    |   literal
+    |   LPAREN const_exp RPAREN
+    ;
+
+literal
+    :   integer_literal
+    |   string_literal
+    |   wide_string_literal
+    |   character_literal
+    |   wide_character_literal
+    |   fixed_pt_literal
+    |   floating_pt_literal
+    |   boolean_literal
+    ;
+
+boolean_literal
+    :   'TRUE'
+    |   'FALSE'
+    ;
+
+positive_int_const
+    :   const_exp
+    ;
+
+type_dcl
+    :   'typedef' type_declarator
+    |   struct_type
+    |   union_type
+    |   enum_type
+    |   'native' simple_declarator
+    |   constr_forward_decl
+    ;
+
+type_declarator
+    :   type_spec declarators
+    ;
+
+type_spec
+    :   simple_type_spec
+    |   constr_type_spec
+    ;
+
+simple_type_spec
+    :   base_type_spec
+    |   template_type_spec
+    |   scoped_name
+    ;
+
+base_type_spec
+    :   floating_pt_type
+    |   integer_type
+    |   char_type
+    |   wide_char_type
+    |   boolean_type
+    |   octet_type
+    |   any_type
+    |   object_type
+    |   value_base_type
+    ;
+
+template_type_spec
+    :   sequence_type
+    |   string_type
+    |   wide_string_type
+    |   fixed_pt_type
+    ;
+
+constr_type_spec
+    :   struct_type
+    |   union_type
+    |   enum_type
+    ;
+
+declarators
+    :   declarator ( COMMA declarator )*
+    ;
+
+declarator
+    :   simple_declarator
+    |   complex_declarator
+    ;
+
+simple_declarator
+    :   identifier
+    ;
+
+complex_declarator
+    :   array_declarator
+    ;
+
+floating_pt_type
+    :   'float'
+    |   'double'
+    |   'long' 'double'
+    ;
+
+integer_type
+    :   signed_int
+    |   unsigned_int
+    ;
+
+signed_int
+    :   signed_short_int
+    |   signed_long_int
+    |   signed_longlong_int
+    ;
+
+signed_short_int
+    :   'short'
+    ;
+
+signed_long_int
+    :   'long'
+    ;
+
+signed_longlong_int
+    :   'long' 'long'
+    ;
+
+unsigned_int
+    :   unsigned_short_int
+    |   unsigned_long_int
+    |   unsigned_longlong_int
+    ;
+
+unsigned_short_int
+    :   'unsigned' 'short'
+    ;
+
+unsigned_long_int
+    :   'unsigned' 'long'
+    ;
+
+unsigned_longlong_int
+    :   'unsigned' 'long' 'long'
+    ;
+
+char_type
+    :   'char'
+    ;
+
+wide_char_type
+    :   'wchar'
+    ;
+
+boolean_type
+    :   'boolean'
+    ;
+
+octet_type
+    :   'octet'
+    ;
+
+any_type
+    :   'any'
+    ;
+
+object_type
+    :   'Object'
+    ;
+
+struct_type
+    :   'struct' identifier LCURLY member_list RCURLY
+    ;
+
+member_list
+    :   member+
+    ;
+
+member
+    :   type_spec declarators SEMI
+    ;
+
+union_type
+    :   'union' identifier 'switch' LPAREN switch_type_spec RPAREN
+        LCURLY switch_body RCURLY
+    ;
+
+switch_type_spec
+    :   integer_type
+    |   char_type
+    |   boolean_type
+    |   enum_type
+    |   scoped_name
+    ;
+
+switch_body
+    :   case_stmt+
+    ;
+
+case_stmt
+    :   ( 'case' const_exp COLON | 'default' COLON )+
+        element_spec SEMI
+    ;
+
+element_spec
+    :   type_spec declarator
+    ;
+
+enum_type
+    :   'enum' identifier LCURLY enumerator ( COMMA enumerator )* RCURLY
+    ;
+
+enumerator
+    :   identifier
+    ;
+
+sequence_type
+    :   'sequence' LT simple_type_spec ( COMMA positive_int_const )? GT
+    ;
+
+string_type
+    :   'string' ( LT positive_int_const GT )?
+    ;
+
+wide_string_type
+    :   'wstring' ( LT positive_int_const GT )?
+    ;
+
+array_declarator
+    :   identifier fixed_array_size+
+    ;
+
+fixed_array_size
+    :   LBRACK positive_int_const RBRACK
+    ;
+
+attr_dcl
+    :   readonly_attr_spec
+    |   attr_spec
+    ;
+
+except_dcl
+    :   'exception' identifier LCURLY member* RCURLY
+    ;
+
+op_dcl
+    :   op_attribute? op_type_spec identifier parameter_dcls
+        raises_expr? context_expr?
+    ;
+
+op_attribute
+    :   'oneway'
+    ;
+
+op_type_spec
+    :   param_type_spec
+    |   'void'
+    ;
+
+parameter_dcls
+    :   LPAREN ( param_dcl ( COMMA param_dcl )* )? RPAREN
+    ;
+
+param_dcl
+    :   ( 'in' | 'out' | 'inout' ) param_type_spec simple_declarator
+    ;
+
+raises_expr
+    :   'raises' LPAREN scoped_name_list RPAREN
+    ;
+
+context_expr
+    :   'context' LPAREN string_literal ( COMMA string_literal )* RPAREN
+    ;
+
+param_type_spec
+    :   base_type_spec
+    |   string_type
+    |   wide_string_type
+    |   scoped_name
+    ;
+
+fixed_pt_type
+    :   'fixed' LT positive_int_const COMMA positive_int_const GT
+    ;
+
+fixed_pt_const_type
+    :   'fixed'
+    ;
+
+value_base_type
+    :   'ValueBase'
+    ;
+
+constr_forward_decl
+    :   'struct' identifier
+    |   'union' identifier
+    ;
+
+import_dcl
+    :   'import' imported_scope SEMI
+    ;
+
+imported_scope
+    :   scoped_name
+    |   string_literal
+    ;
+
+type_id_dcl
+    :   'typeid' scoped_name string_literal
+    ;
+
+type_prefix_dcl
+    :   'typeprefix' scoped_name string_literal
+    ;
+
+readonly_attr_spec
+    :   'readonly' 'attribute' param_type_spec readonly_attr_declarator
+    ;
+
+readonly_attr_declarator
+    :   simple_declarator ( raises_expr | ( COMMA simple_declarator )* )
+    ;
+
+attr_spec
+    :   'attribute' param_type_spec attr_declarator
+    ;
+
+attr_declarator
+    :   simple_declarator ( attr_raises_expr | ( COMMA simple_declarator )* )
+    ;
+
+attr_raises_expr
+    :   get_excep_expr set_excep_expr?
+    |   set_excep_expr
+    ;
+
+get_excep_expr
+    :   'getraises' exception_list
+    ;
+
+set_excep_expr
+    :   'setraises' exception_list
+    ;
+
+exception_list
+    :   LPAREN scoped_name ( COMMA scoped_name )* RPAREN
+    ;
+
+// Component Stuff
+
+component
+    :   'component' identifier component_dcl?
+    ;
+
+component_dcl
+    :   component_inheritance_spec? supported_interface_spec?
+        LCURLY component_export* RCURLY
+    ;
+
+supported_interface_spec
+    :   'supports' scoped_name ( COMMA scoped_name )*
+    ;
+
+component_inheritance_spec
+    :   COLON scoped_name
+    ;
+
+component_export
+    :   (   provides_dcl SEMI
+        |   uses_dcl SEMI
+        |   emits_dcl SEMI
+        |   publishes_dcl SEMI
+        |   consumes_dcl SEMI
+        |   attr_dcl SEMI
+        )
+    ;
+
+provides_dcl
+    :   'provides' interface_type identifier
+    ;
+
+interface_type
+    :   scoped_name
+    |   'Object'
+    ;
+
+uses_dcl
+    :   'uses' 'multiple'? interface_type identifier
+    ;
+
+emits_dcl
+    :   'emits' scoped_name identifier
+    ;
+
+publishes_dcl
+    :   'publishes' scoped_name identifier
+    ;
+
+consumes_dcl
+    :   'consumes' scoped_name identifier
+    ;
+
+home_dcl
+    :   home_header home_body
+    ;
+
+home_header
+    :   'home' identifier home_inheritance_spec? supported_interface_spec?
+        'manages' scoped_name primary_key_spec?
+    ;
+
+home_inheritance_spec
+    :   COLON scoped_name
+    ;
+
+primary_key_spec
+    :   'primarykey' scoped_name
+    ;
+
+home_body
+    :   LCURLY home_export* RCURLY
+    ;
+
+home_export
+    :   export
+    |   factory_dcl SEMI
+    |   finder_dcl SEMI
+    ;
+
+factory_dcl
+    :   'factory' identifier LPAREN init_param_decls RPAREN raises_expr?
+    ;
+
+finder_dcl
+    :   'finder' identifier LPAREN init_param_decls RPAREN raises_expr?
+    ;
+
+event
+    :   event_abs
+    |   event_custom
+    |   event_dcl
+    ;
+
+event_header
+    :   'eventtype' identifier
+    ;
+
+event_abs
+    :   'abstract' event_header event_abs_dcl?
+    ;
+
+event_abs_dcl
+    :   value_inheritance_spec LCURLY export* RCURLY
+    ;
+
+event_custom
+    :   'custom' event_header event_elem_dcl
+    ;
+
+event_dcl
+    :   event_header event_elem_dcl?
+    ;
+
+event_elem_dcl
+    :   value_inheritance_spec LCURLY export* RCURLY
+    ;
+
+/* literals */
+integer_literal
+    :   INT
+    |   OCTAL
+    |   HEX
+    ;
+
+string_literal
+    :   STRING_LITERAL+
+    ;
+
+wide_string_literal
+    :   WIDE_STRING_LITERAL+
+    ;
+
+character_literal
+    :   CHAR_LITERAL
+    ;
+
+wide_character_literal
+    :   WIDE_CHAR_LITERAL
+    ;
+
+fixed_pt_literal
+    :   FIXED
+    ;
+
+floating_pt_literal
+    :   FLOAT
+    ;
+
+identifier
+    :   IDENT
+    ;
+
+/* IDL LEXICAL RULES  */
+
+SEMI : ';' ;
+QUESTION : '?' ;
+LPAREN : '(' ;
+RPAREN : ')' ;
+LBRACK : '[' ;
+RBRACK : ']' ;
+LCURLY : '{' ;
+RCURLY : '}' ;
+OR : '|' ;
+XOR : '^' ;
+AND : '&' ;
+COLON : ':' ;
+COMMA : ',' ;
+DOT : '.' ;
+ASSIGN : '=' ;
+NOT : '!' ;
+LT : '<' ;
+LSHIFT : '<<' ;
+GT : '>' ;
+RSHIFT : '>>' ;
+DIV : '/' ;
+PLUS : '+' ;
+MINUS : '-' ;
+TILDE : '~' ;
+STAR : '*' ;
+MOD : '%' ;
+SCOPEOP : '::' ;
+
+WS
+    :   [ \t\r\n]+ -> skip
+    ;
+
+PREPROC_DIRECTIVE
+    :   '#' ~'\n'* -> skip
+    ;
+
+SL_COMMENT
+    :   '//' ~'\n'* -> skip
+    ;
+
+ML_COMMENT
+    :   '/*' .*? '*/' -> channel(HIDDEN)
+    ;
+
+CHAR_LITERAL
+    :   '\'' ( ESC | ~'\'' ) '\''
+    ;
+
+WIDE_CHAR_LITERAL
+    :   'L' CHAR_LITERAL
+    ;
+
+STRING_LITERAL
+    :   '"' ( ESC | ~[\\"] )* '"'
+    ;
+
+WIDE_STRING_LITERAL
+    :   'L' STRING_LITERAL
+    ;
+
+fragment
+ESC
+    :   '\\'
+        (   [ntvbrfa\\?'"]
+        |   OCTDIGIT ( OCTDIGIT OCTDIGIT? )?
+        |   'x' HEXDIGIT HEXDIGIT?
+        |   'u' HEXDIGIT ( HEXDIGIT ( HEXDIGIT HEXDIGIT? )? )?
+        )
+    ;
+
+fragment
+DIGIT
+    :   [0-9]
+    ;
+
+fragment
+OCTDIGIT
+    :   [0-7]
+    ;
+
+fragment
+HEXDIGIT
+    :   [0-9a-fA-F]
+    ;
+
+fragment
+EXPONENT
+    :   [eE] [+-]? DIGIT+
+    ;
+
+HEX
+    :   '0' [xX] HEXDIGIT+
+    ;
+
+INT
+    :   [1-9] DIGIT*
+    ;
+
+OCTAL
+    :   '0' DIGIT*
+    ;
+
+FLOAT
+    :   DIGIT+ '.' DIGIT* EXPONENT?
+    |   '.' DIGIT+ EXPONENT?
+    |   DIGIT+ EXPONENT
+    ;
+
+FIXED
+    :   DIGIT+ ( '.' DIGIT* )? [dD]
+    |   '.' DIGIT+ [dD]
+    ;
+
+// An escaped identifier keeps its underscore, which is dropped with the
+// name.
+IDENT
+    :   '_'? [a-zA-Z] [a-zA-Z_0-9]*
+    ;
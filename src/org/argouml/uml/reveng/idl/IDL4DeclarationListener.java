@@ -0,0 +1,295 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.BufferedTokenStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+/**
+ * Parses a source file with the ANTLR 4 {@link IDL4Parser} and collects
+ * its declarations into the same {@link Specification} as the
+ * {@link IDLParser} does with its actions.
+ * <p>
+ * Each file is parsed in two stages: first with SLL prediction, which is
+ * fast but gives up on some valid input, then again with full LL
+ * prediction only if that fails.  The DFA the prediction builds is held by
+ * the generated parser class, so it is shared by all files and threads and
+ * later files are predicted from the cache.
+ * <p>
+ * The declarations are only taken from the parse tree once the parse has
+ * succeeded, so a second stage doesn't report them twice.
+ */
+class IDL4DeclarationListener extends IDL4BaseListener {
+
+    private static final Logger LOG =
+        Logger.getLogger(IDL4DeclarationListener.class.getName());
+
+    private final DeclarationBuilder builder;
+
+    private final BufferedTokenStream tokens;
+
+    /**
+     * @param theBuilder the builder to report the declarations to
+     * @param theTokens the tokens of the parse, for the documentation
+     *                  comments on the hidden channel
+     */
+    IDL4DeclarationListener(DeclarationBuilder theBuilder,
+            BufferedTokenStream theTokens) {
+        builder = theBuilder;
+        tokens = theTokens;
+    }
+
+    /**
+     * Parse a source file.
+     *
+     * @param source the source, from its current position
+     * @param fileName the name of the file for the messages
+     * @param symbols the identifiers shared with other files, or null
+     * @param listener the listener to tell about each definition, or null
+     * @return the declarations of the file
+     * @throws ParseCancellationException on the first syntax error, caused
+     *         by an ANTLR 2 RecognitionException with its position
+     */
+    static Specification parse(final SourceBuffer source,
+            final String fileName,
+            SymbolTable symbols, final ParseListener listener) {
+        final int start = source.position();
+        ANTLRInputStream input = new ANTLRInputStream(new String(
+                source.array(), start, source.limit() - start));
+        input.name = fileName;
+        IDL4Lexer lexer = new IDL4Lexer(input);
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        IDL4Parser parser = new IDL4Parser(tokens);
+        if (listener != null) {
+            parser.addParseListener(new IDL4BaseListener() {
+                public void exitDefinition(IDL4Parser.DefinitionContext ctx) {
+                    Token stop = ctx.getStop();
+                    if (stop != null) {
+                        source.position(start + stop.getStopIndex() + 1);
+                    }
+                    listener.definitionParsed();
+                }
+            });
+        }
+
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        ParseTree tree;
+        try {
+            tree = parser.specification();
+        } catch (ParseCancellationException e) {
+            // not SLL, or not valid at all, which only LL can tell
+            LOG.log(Level.FINE, "Parsing {0} again with LL prediction",
+                    fileName);
+            tokens.seek(0);
+            parser.reset();
+            parser.addErrorListener(new BaseErrorListener() {
+                public void syntaxError(Recognizer<?, ?> recognizer,
+                        Object offendingSymbol, int line, int column,
+                        String msg, RecognitionException e) {
+                    // reported like the errors of the IDLParser
+                    throw new ParseCancellationException(
+                            new antlr.RecognitionException(msg, fileName,
+                                    line, column + 1));
+                }
+            });
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            tree = parser.specification();
+        }
+        source.position(source.limit());
+
+        DeclarationBuilder builder = new DeclarationBuilder(fileName);
+        builder.setSymbolTable(symbols);
+        new ParseTreeWalker().walk(new IDL4DeclarationListener(builder,
+                tokens), tree);
+        return builder.getSpecification();
+    }
+
+    public void enterModule(IDL4Parser.ModuleContext ctx) {
+        builder.beginModule(getName(ctx.identifier()),
+                getPosition(ctx.getStart()));
+    }
+
+    public void exitModule(IDL4Parser.ModuleContext ctx) {
+        builder.endModule();
+    }
+
+    public void enterInterface_dcl(IDL4Parser.Interface_dclContext ctx) {
+        IDL4Parser.InterfContext interf =
+            (IDL4Parser.InterfContext) ctx.getParent();
+        List<String> inherited = new ArrayList<String>();
+        IDL4Parser.Interface_inheritance_specContext inheritance =
+            ctx.interface_header().interface_inheritance_spec();
+        if (inheritance != null) {
+            inherited = getNames(inheritance.scoped_name_list());
+        }
+        builder.beginInterface(getName(interf.identifier()),
+                getPosition(interf.getStart()), inherited,
+                getDocumentation(interf.getStart()));
+    }
+
+    public void exitInterface_dcl(IDL4Parser.Interface_dclContext ctx) {
+        builder.endInterface();
+    }
+
+    public void exitOp_dcl(IDL4Parser.Op_dclContext ctx) {
+        String returnType = "void";
+        if (ctx.op_type_spec().param_type_spec() != null) {
+            returnType = getType(ctx.op_type_spec().param_type_spec());
+        }
+        List<ParameterDeclaration> parameters =
+            new ArrayList<ParameterDeclaration>();
+        for (IDL4Parser.Param_dclContext param
+                : ctx.parameter_dcls().param_dcl()) {
+            parameters.add(new ParameterDeclaration(
+                    getDirection(param.getStart().getText()),
+                    getType(param.param_type_spec()),
+                    getName(param.simple_declarator().identifier())));
+        }
+        List<String> raises = new ArrayList<String>();
+        if (ctx.raises_expr() != null) {
+            raises = getNames(ctx.raises_expr().scoped_name_list());
+        }
+        builder.addOperation(getName(ctx.identifier()),
+                getPosition(ctx.getStart()), ctx.op_attribute() != null,
+                returnType, parameters, raises,
+                getDocumentation(ctx.getStart()));
+    }
+
+    private static short getDirection(String attribute) {
+        if ("out".equals(attribute)) {
+            return ParameterDeclaration.MOD_OUT;
+        }
+        if ("inout".equals(attribute)) {
+            return ParameterDeclaration.MOD_INOUT;
+        }
+        return ParameterDeclaration.MOD_IN;
+    }
+
+    /**
+     * Get the name of an identifier, without the underscore of an escaped
+     * one.
+     */
+    private static String getName(IDL4Parser.IdentifierContext identifier) {
+        String text = identifier.getText();
+        return text.charAt(0) == '_' ? text.substring(1) : text;
+    }
+
+    private static String getName(IDL4Parser.Scoped_nameContext name) {
+        StringBuilder sb = new StringBuilder();
+        for (ParseTree child : name.children) {
+            if (child instanceof TerminalNode) {
+                sb.append("::");
+            } else {
+                sb.append(getName((IDL4Parser.IdentifierContext) child));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<String> getNames(
+            IDL4Parser.Scoped_name_listContext list) {
+        List<String> names = new ArrayList<String>();
+        for (IDL4Parser.Scoped_nameContext name : list.scoped_name()) {
+            names.add(getName(name));
+        }
+        return names;
+    }
+
+    /**
+     * Get a type as the IDLParser names it: a scoped name, the keywords of a
+     * base type separated by blanks, or just "string" or "wstring" with any
+     * bound left out.
+     */
+    private static String getType(IDL4Parser.Param_type_specContext type) {
+        if (type.scoped_name() != null) {
+            return getName(type.scoped_name());
+        }
+        if (type.base_type_spec() == null) {
+            return type.getStart().getText();
+        }
+        StringBuilder sb = new StringBuilder();
+        appendKeywords(type.base_type_spec(), sb);
+        return sb.toString();
+    }
+
+    private static void appendKeywords(ParseTree tree, StringBuilder sb) {
+        if (tree instanceof TerminalNode) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(tree.getText());
+            return;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            appendKeywords(tree.getChild(i), sb);
+        }
+    }
+
+    /**
+     * Get the position of a token the way ANTLR 2 counts it, with tabs
+     * moving the column to the next tab stop.
+     */
+    private static SourcePosition getPosition(Token token) {
+        int index = token.getStartIndex();
+        String line = token.getInputStream().getText(Interval.of(
+                index - token.getCharPositionInLine(), index - 1));
+        int column = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '\t') {
+                column = ((column - 1) / LineTable.TAB_SIZE + 1)
+                    * LineTable.TAB_SIZE + 1;
+            } else {
+                column++;
+            }
+        }
+        return new SourcePosition(token.getLine(), column);
+    }
+
+    /**
+     * Get the documentation comment in front of a token, the last one
+     * before it like the {@link DocComments} of the IDLLexer keep it.
+     */
+    private String getDocumentation(Token token) {
+        List<Token> hidden = tokens.getHiddenTokensToLeft(
+                token.getTokenIndex(), Token.HIDDEN_CHANNEL);
+        if (hidden == null) {
+            return null;
+        }
+        for (int i = hidden.size() - 1; i >= 0; i--) {
+            String comment = hidden.get(i).getText();
+            if (comment.length() > 4 && comment.charAt(2) == '*') {
+                return comment;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,518 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.argouml.kernel.Project;
+import org.argouml.kernel.ProjectManager;
+import org.argouml.model.Model;
+import org.argouml.model.ModelImplementation;
+import org.argouml.model.UmlException;
+import org.argouml.moduleloader.ModuleInterface;
+import org.argouml.profile.init.InitProfileSubsystem;
+import org.argouml.taskmgmt.ProgressEvent;
+import org.argouml.taskmgmt.ProgressMonitor;
+import org.argouml.uml.reveng.FileImportUtils;
+import org.argouml.uml.reveng.ImportInterface.ImportException;
+import org.argouml.uml.reveng.ImportSettings;
+
+/**
+ * Imports IDL files without the ArgoUML user interface, e.g. on a build
+ * server, and writes the resulting model as XMI.
+ * <p>
+ * Usage: <code>java org.argouml.uml.reveng.idl.IDLBatchImport [options]
+ * file-or-directory...</code>, see {@link #USAGE} for the options.
+ * Directories are searched recursively for <code>.idl</code> files.  The
+ * model implementation is taken from the system property
+ * <code>argouml.model.implementation</code>, the MDR implementation by
+ * default.
+ * <p>
+ * With <code>-watch</code> the importer keeps running after the first
+ * import and incrementally re-imports the files which change, writing the
+ * model again each time.  The classifiers of deleted files are removed.
+ * <p>
+ * Files with errors don't stop the import.  The errors are printed at the
+ * end, and the exit status is then 1 although the model has been written.
+ */
+public final class IDLBatchImport {
+
+    private static final String DEFAULT_MODEL_IMPLEMENTATION =
+        "org.argouml.model.mdr.MDRModelImplementation";
+
+    /**
+     * The usage message.
+     */
+    static final String USAGE =
+        "Usage: java " + IDLBatchImport.class.getName()
+        + " [options] file-or-directory...\n"
+        + "Options:\n"
+        + "  -o <file>          write the model as XMI to this file\n"
+        + "  -threads <n>       parse n files concurrently (default 1)\n"
+        + "  -encoding <name>   encoding of the sources (default: platform)\n"
+        + "  -cache <dir>       keep parse results in this directory\n"
+        + "  -stream <MB>       stream files of at least this many MB\n"
+        + "  -fastlexer         use the hand-written lexer\n"
+        + "  -antlr4            use the ANTLR 4 parser, which leaves out\n"
+        + "                     files with syntax errors as a whole\n"
+        + "  -watch             keep running and re-import changed files\n"
+        + "  -quiet             don't print progress\n";
+
+    /**
+     * Time between two scans for changed files in watch mode, in
+     * milliseconds.
+     */
+    private static final long POLL_INTERVAL = 200;
+
+    /**
+     * How long files must be left alone before they are re-imported in
+     * watch mode, in milliseconds.
+     */
+    private static final long QUIET_PERIOD = 250;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    private final IDLFileImport importer = new IDLFileImport();
+
+    private final List<File> inputs = new ArrayList<File>();
+
+    private File output;
+
+    private String encoding;
+
+    private boolean quiet;
+
+    private boolean watch;
+
+    private final PrintStream out;
+
+    private final PrintStream err;
+
+    /**
+     * @param theOut the stream to print progress and statistics to
+     * @param theErr the stream to print errors to
+     */
+    IDLBatchImport(PrintStream theOut, PrintStream theErr) {
+        out = theOut;
+        err = theErr;
+    }
+
+    /**
+     * Run an import from the command line.
+     *
+     * @param args the options and files, see {@link #USAGE}
+     */
+    public static void main(String[] args) {
+        int status = execute(args, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Run an import from the command line, without exiting.
+     *
+     * @param args the options and files, see {@link #USAGE}
+     * @param out the stream to print progress and statistics to
+     * @param err the stream to print errors to
+     * @return the exit status: 0 if all files were imported, 1 if there
+     *         were errors in the files or the model couldn't be written, and
+     *         2 if the command line is invalid
+     */
+    static int execute(String[] args, PrintStream out, PrintStream err) {
+        IDLBatchImport batch = new IDLBatchImport(out, err);
+        try {
+            batch.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(USAGE);
+            return 2;
+        }
+        try {
+            batch.run();
+            if (!batch.importer.getDiagnostics().isEmpty()) {
+                return 1;
+            }
+        } catch (ImportException e) {
+            err.println("Import failed: " + e.getMessage());
+            if (e.getCause() != null) {
+                err.println(e.getCause());
+            }
+            return 1;
+        } catch (IOException e) {
+            err.println("Unable to write model: " + e);
+            return 1;
+        } catch (UmlException e) {
+            err.println("Unable to write model: " + e);
+            return 1;
+        } catch (InterruptedException e) {
+            // stopped watching
+        }
+        return 0;
+    }
+
+    /**
+     * @return the importer, as set up by the command line
+     */
+    IDLFileImport getImporter() {
+        return importer;
+    }
+
+    /**
+     * @return the file to write the model to, or null
+     */
+    File getOutput() {
+        return output;
+    }
+
+    /**
+     * @return the files and directories to import
+     */
+    List<File> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Read the command line.
+     *
+     * @param args the options and files
+     * @throws IllegalArgumentException if the command line is invalid
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-o".equals(arg)) {
+                output = new File(getValue(args, ++i, arg));
+            } else if ("-threads".equals(arg)) {
+                importer.setThreadCount(
+                        getNumber(getValue(args, ++i, arg), arg));
+            } else if ("-encoding".equals(arg)) {
+                encoding = getValue(args, ++i, arg);
+                importer.setInputSourceEncoding(encoding);
+            } else if ("-cache".equals(arg)) {
+                importer.setCacheDirectory(
+                        new File(getValue(args, ++i, arg)));
+            } else if ("-stream".equals(arg)) {
+                importer.setStreamingThreshold(
+                        (long) getNumber(getValue(args, ++i, arg), arg)
+                        * (long) BYTES_PER_MB);
+            } else if ("-fastlexer".equals(arg)) {
+                importer.setFastLexer(true);
+            } else if ("-antlr4".equals(arg)) {
+                importer.setAntlr4Parser(true);
+            } else if ("-watch".equals(arg)) {
+                watch = true;
+            } else if ("-quiet".equals(arg)) {
+                quiet = true;
+            } else if (arg.startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                inputs.add(new File(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No files given");
+        }
+    }
+
+    /**
+     * @param args the command line
+     * @param i the index of the value of an option
+     * @param option the option, for the message
+     * @return the value
+     * @throws IllegalArgumentException if the value is missing
+     */
+    static String getValue(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(
+                    "Missing value for " + option);
+        }
+        return args[i];
+    }
+
+    /**
+     * @param value the value of an option
+     * @param option the option, for the message
+     * @return the value as a number
+     * @throws IllegalArgumentException if the value is not a number of at
+     *                                  least 0
+     */
+    static int getNumber(String value, String option) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n >= 0) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(
+                "Invalid value for " + option + ": " + value);
+    }
+
+    /**
+     * Import the files and write the model.  In watch mode, keep re-importing
+     * the files which change until the thread is interrupted.
+     *
+     * @throws ImportException if a file can't be imported
+     * @throws IOException if the model can't be written
+     * @throws UmlException if the model can't be written
+     * @throws InterruptedException if watching is interrupted
+     */
+    void run() throws ImportException, IOException, UmlException,
+        InterruptedException {
+        initializeModel();
+        List<File> files = new ArrayList<File>();
+        for (File input : inputs) {
+            if (input.isDirectory()) {
+                files.addAll(FileImportUtils.getList(input, true,
+                        importer.getSuffixFilters(), null));
+            } else {
+                files.add(input);
+            }
+        }
+        Project project = ProjectManager.getManager().makeEmptyProject(false);
+        if (!watch) {
+            importFiles(project, files);
+            return;
+        }
+
+        // Re-imports only apply what changed, and only parse contents the
+        // session hasn't seen before.  The watcher takes its
+        // snapshot first, so that files changed during the initial import
+        // are imported again.
+        importer.setIncremental(true);
+        importer.beginSession();
+        SourceWatcher watcher = new SourceWatcher(inputs, new FileFilter() {
+            public boolean accept(File file) {
+                return importer.isParseable(file);
+            }
+        }, POLL_INTERVAL, QUIET_PERIOD);
+        try {
+            importFiles(project, files);
+            while (true) {
+                List<File> changed = watcher.awaitChanges();
+                List<File> deleted = watcher.getDeleted();
+                if (!deleted.isEmpty()) {
+                    out.println("Deleted: " + deleted);
+                    for (File file : importer.removeFiles(project, deleted)) {
+                        if (!changed.contains(file)) {
+                            changed.add(file);
+                        }
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    out.println("Changed: " + changed);
+                }
+                try {
+                    importFiles(project, changed);
+                } catch (ImportException e) {
+                    // keep watching, the next save may fix it
+                    err.println("Import failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            importer.endSession();
+        }
+    }
+
+    /*
+     * Import some files into the project, write the model and print the
+     * statistics.
+     */
+    private void importFiles(Project project, List<File> files)
+        throws ImportException, IOException, UmlException {
+        long bytes = 0;
+        for (File file : files) {
+            bytes += file.length();
+        }
+        long start = System.nanoTime();
+        Collection<?> newElements = importer.parseFiles(project, files,
+                new Settings(), new Monitor());
+        long imported = System.nanoTime();
+
+        if (output != null) {
+            OutputStream stream =
+                new BufferedOutputStream(new FileOutputStream(output));
+            try {
+                Model.getXmiWriter(project.getModel(), stream,
+                        importer.getInfo(ModuleInterface.VERSION)).write();
+            } finally {
+                stream.close();
+            }
+        }
+        long written = System.nanoTime();
+
+        printStatistics(files.size(), bytes, newElements, imported - start,
+                written - imported);
+    }
+
+    /*
+     * Set up the model subsystem and profiles the way ArgoUML does on
+     * startup.
+     */
+    private static void initializeModel() {
+        if (!Model.isInitiated()) {
+            String className = System.getProperty(
+                    "argouml.model.implementation",
+                    DEFAULT_MODEL_IMPLEMENTATION);
+            try {
+                Model.setImplementation(Class.forName(className)
+                        .asSubclass(ModelImplementation.class)
+                        .getConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(
+                        "Model implementation not found: " + className, e);
+            } catch (ClassCastException e) {
+                throw new IllegalStateException(
+                        "Not a model implementation: " + className, e);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(
+                        "Unable to create model implementation", e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(
+                        "Unable to create model implementation",
+                        e.getCause());
+            } catch (InstantiationException e) {
+                throw new IllegalStateException(
+                        "Unable to create model implementation", e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(
+                        "Unable to create model implementation", e);
+            }
+        }
+        new InitProfileSubsystem().init();
+    }
+
+    private void printStatistics(int files, long bytes,
+            Collection<?> newElements, long importTime, long writeTime) {
+        double seconds = Math.max(importTime, 1) / NANOS_PER_SECOND;
+        out.println(String.format(
+                "Imported %d files (%.1f MB) in %.2f s: "
+                + "%.1f files/s, %.2f MB/s",
+                files, bytes / BYTES_PER_MB, seconds, files / seconds,
+                bytes / BYTES_PER_MB / seconds));
+        if (output != null) {
+            out.println(String.format("Wrote %s in %.2f s", output,
+                    writeTime / NANOS_PER_SECOND));
+        }
+        Map<String, Integer> counts = new TreeMap<String, Integer>();
+        for (Object element : newElements) {
+            String kind = Model.getFacade().getUMLClassName(element);
+            Integer count = counts.get(kind);
+            counts.put(kind, count == null ? 1 : count + 1);
+        }
+        if (importer.getDuplicateCount() > 0) {
+            out.println(String.format(
+                    "Skipped %d identical copies, saving about %.2f s",
+                    importer.getDuplicateCount(),
+                    importer.getDuplicateTimeSaved() / 1000.0));
+        }
+        out.println("New model elements: " + newElements.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            out.println(String.format("  %-20s %8d", entry.getKey(),
+                    entry.getValue()));
+        }
+    }
+
+    /**
+     * The import settings taken from the command line.
+     */
+    private class Settings implements ImportSettings {
+
+        public int getImportLevel() {
+            return ImportSettings.DETAIL_FULL;
+        }
+
+        public String getInputSourceEncoding() {
+            return encoding;
+        }
+
+        public boolean isAttributeSelected() {
+            return false;
+        }
+
+        public boolean isCreateDiagramsSelected() {
+            return false;
+        }
+
+        public boolean isDatatypeSelected() {
+            return false;
+        }
+
+        public boolean isMinimizeFigsSelected() {
+            return false;
+        }
+    }
+
+    /**
+     * Prints the progress reported by the import.
+     */
+    private class Monitor implements ProgressMonitor {
+
+        public void setMaximumProgress(int max) {
+            // the sub task describes the progress
+        }
+
+        public void updateProgress(int progress) {
+            // the sub task describes the progress
+        }
+
+        public void updateSubTask(String name) {
+            if (!quiet) {
+                out.println(name);
+            }
+        }
+
+        public void updateMainTask(String name) {
+            if (!quiet) {
+                out.println(name);
+            }
+        }
+
+        public boolean isCanceled() {
+            return false;
+        }
+
+        public void notifyMessage(String title, String introduction,
+                String message) {
+            out.println(title + ": " + introduction);
+            out.println(message);
+        }
+
+        public void notifyNullAction() {
+            // nothing to report
+        }
+
+        public void close() {
+            // nothing to release
+        }
+
+        public void progress(ProgressEvent event) {
+            // only used when loading and saving projects
+        }
+    }
+}
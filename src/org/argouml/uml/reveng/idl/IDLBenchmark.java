@@ -0,0 +1,283 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import antlr.RecognitionException;
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+
+/**
+ * Measures how fast the lexers of the IDL import get through files, without
+ * building a model.
+ * <p>
+ * Usage: <code>java org.argouml.uml.reveng.idl.IDLBenchmark [options]
+ * file...</code>, see {@link #USAGE} for the options.  Each file is read
+ * into memory once and then lexed several times by each lexer:
+ * <ul>
+ * <li>the generated lexer with white space and comments left to its rules,
+ * <li>the generated lexer skipping them in bulk with the {@link Skipper},
+ * <li>the hand-written {@link IDLScanner}.
+ * </ul>
+ * The best time of each is reported, as the first runs include the
+ * compilation by the JIT.  With <code>-profile</code> the generated lexer
+ * with its rules then makes a {@link LexerProfile} of each file.  With
+ * <code>-parse</code> each file is also parsed as the import does, once
+ * building the syntax tree of the generated parser and once with the
+ * {@link NoASTFactory}, and then with the ANTLR 4 parser of
+ * {@link IDL4DeclarationListener}, without building a model.
+ */
+public final class IDLBenchmark {
+
+    /**
+     * The usage message.
+     */
+    static final String USAGE =
+        "Usage: java " + IDLBenchmark.class.getName()
+        + " [options] file...\n"
+        + "Options:\n"
+        + "  -iterations <n>    lex each file n times (default 10)\n"
+        + "  -encoding <name>   encoding of the sources (default: platform)\n"
+        + "  -profile           also show the time of the generated lexer by\n"
+        + "                     token type\n"
+        + "  -parse             also parse each file with and without building\n"
+        + "                     the syntax tree, and with the ANTLR 4 parser\n";
+
+    private static final int DEFAULT_ITERATIONS = 10;
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * Makes one of the lexers to measure.
+     */
+    private abstract static class Lexer {
+
+        private final String name;
+
+        Lexer(String theName) {
+            name = theName;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        abstract TokenStream create(SourceBuffer source);
+    }
+
+    private static final Lexer[] LEXERS = {
+        new Lexer("generated, rules") {
+            TokenStream create(SourceBuffer source) {
+                IDLLexer lexer = new IDLLexer(source);
+                lexer.setBulkSkip(false);
+                return lexer;
+            }
+        },
+        new Lexer("generated, bulk skip") {
+            TokenStream create(SourceBuffer source) {
+                return new IDLLexer(source);
+            }
+        },
+        new Lexer("scanner") {
+            TokenStream create(SourceBuffer source) {
+                return new IDLScanner(source);
+            }
+        },
+    };
+
+    private final List<File> files = new ArrayList<File>();
+
+    private int iterations = DEFAULT_ITERATIONS;
+
+    private String encoding;
+
+    private boolean profile;
+
+    private boolean parse;
+
+    private final PrintStream out;
+
+    /**
+     * @param theOut the stream to print the results to
+     */
+    IDLBenchmark(PrintStream theOut) {
+        out = theOut;
+    }
+
+    /**
+     * Run the benchmark from the command line.
+     *
+     * @param args the options and files, see {@link #USAGE}
+     */
+    public static void main(String[] args) {
+        IDLBenchmark benchmark = new IDLBenchmark(System.out);
+        try {
+            benchmark.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+        }
+        try {
+            benchmark.run();
+        } catch (IOException e) {
+            System.err.println("Unable to read: " + e);
+            System.exit(1);
+        } catch (TokenStreamException e) {
+            System.err.println("Unable to lex: " + e);
+            System.exit(1);
+        } catch (RecognitionException e) {
+            System.err.println("Unable to parse: " + e);
+            System.exit(1);
+        } catch (ParseCancellationException e) {
+            System.err.println("Unable to parse: " + e.getCause());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read the command line.
+     *
+     * @param args the options and files
+     * @throws IllegalArgumentException if the command line is invalid
+     */
+    void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("-iterations".equals(arg)) {
+                iterations = Math.max(1, IDLBatchImport.getNumber(
+                        IDLBatchImport.getValue(args, ++i, arg), arg));
+            } else if ("-encoding".equals(arg)) {
+                encoding = IDLBatchImport.getValue(args, ++i, arg);
+            } else if ("-profile".equals(arg)) {
+                profile = true;
+            } else if ("-parse".equals(arg)) {
+                parse = true;
+            } else if (arg.startsWith("-")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                files.add(new File(arg));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No files given");
+        }
+    }
+
+    /**
+     * Lex the files and print the results.
+     *
+     * @throws IOException if a file can't be read
+     * @throws TokenStreamException if a file can't be lexed
+     * @throws RecognitionException if a file can't be parsed
+     */
+    void run()
+        throws IOException, TokenStreamException, RecognitionException {
+        for (File file : files) {
+            SourceBuffer source = SourceBuffer.read(file, encoding);
+            double megabytes = file.length() / BYTES_PER_MB;
+            out.println(String.format("%s (%.1f MB)", file, megabytes));
+            for (Lexer lexer : LEXERS) {
+                long best = Long.MAX_VALUE;
+                int tokens = 0;
+                for (int i = 0; i < iterations; i++) {
+                    source.reset();
+                    long start = System.nanoTime();
+                    tokens = lex(lexer.create(source));
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                double seconds = Math.max(best, 1) / NANOS_PER_SECOND;
+                out.println(String.format(
+                        "  %-22s %9d tokens %9.1f ms %9.1f MB/s",
+                        lexer.getName(), tokens, best / NANOS_PER_MILLI,
+                        megabytes / seconds));
+            }
+            if (profile) {
+                LexerProfile lexerProfile = new LexerProfile();
+                source.reset();
+                lexerProfile.lex(source, file.getName());
+                lexerProfile.print(out);
+            }
+            if (parse) {
+                parse(source, megabytes, true);
+                parse(source, megabytes, false);
+                parse4(source, megabytes);
+            }
+        }
+    }
+
+    /**
+     * Parse a file several times and print the best time.
+     *
+     * @throws RecognitionException if the file can't be parsed
+     * @throws TokenStreamException if the file can't be lexed
+     */
+    private void parse(SourceBuffer source, double megabytes,
+            boolean buildAST)
+        throws RecognitionException, TokenStreamException {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            source.reset();
+            long start = System.nanoTime();
+            IDLLexer lexer = new IDLLexer(source);
+            IDLParser parser = new IDLParser(lexer);
+            parser.setTokenRing(new TokenRing(lexer, IDLParser.LOOKAHEAD));
+            parser.setBuildAST(buildAST);
+            parser.specification();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double seconds = Math.max(best, 1) / NANOS_PER_SECOND;
+        out.println(String.format("  %-22s %16s %9.1f ms %9.1f MB/s",
+                buildAST ? "parser, tree" : "parser, no tree", "",
+                best / NANOS_PER_MILLI, megabytes / seconds));
+    }
+
+    /**
+     * Parse a file several times with the ANTLR 4 parser and print the best
+     * time.
+     */
+    private void parse4(SourceBuffer source, double megabytes) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            source.reset();
+            long start = System.nanoTime();
+            IDL4DeclarationListener.parse(source, "", null, null);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double seconds = Math.max(best, 1) / NANOS_PER_SECOND;
+        out.println(String.format("  %-22s %16s %9.1f ms %9.1f MB/s",
+                "ANTLR 4 parser", "", best / NANOS_PER_MILLI,
+                megabytes / seconds));
+    }
+
+    /**
+     * @return the number of tokens, not counting the end of the file
+     */
+    private static int lex(TokenStream lexer) throws TokenStreamException {
+        int tokens = 0;
+        while (lexer.nextToken().getType() != Token.EOF_TYPE) {
+            tokens++;
+        }
+        return tokens;
+    }
+}
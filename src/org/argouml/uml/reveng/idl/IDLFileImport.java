@@ -39,14 +39,31 @@
 package org.argouml.uml.reveng.idl;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.argouml.kernel.Project;
 import org.argouml.taskmgmt.ProgressMonitor;
@@ -54,10 +71,14 @@ import org.argouml.uml.reveng.FileImportUtils;
 import org.argouml.uml.reveng.ImportInterface;
 import org.argouml.uml.reveng.ImportSettings;
 import org.argouml.uml.reveng.ImporterManager;
+import org.argouml.uml.reveng.Setting;
 import org.argouml.uml.reveng.SettingsTypes;
 import org.argouml.util.SuffixFilter;
 
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
 import antlr.RecognitionException;
+import antlr.TokenStream;
 import antlr.TokenStreamException;
 
 /**
@@ -67,12 +88,150 @@ import antlr.TokenStreamException;
  */
 public class IDLFileImport implements ImportInterface {
 
+    private static final Logger LOG =
+        Logger.getLogger(IDLFileImport.class.getName());
+
+    /**
+     * How long to wait for a parse result before updating the progress, in
+     * milliseconds.
+     */
+    private static final long POLL_INTERVAL = 100;
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
     /////////////////////////////////////////////////////////
     // Instance variables
 
     // The current project.
     private Project currentProject = null;
 
+    /**
+     * Number of threads used to lex and parse files.  With more than one
+     * thread the files are parsed concurrently and only the model building
+     * is serialized.
+     */
+    private int threadCount = 1;
+
+    /**
+     * The setting for the thread count shown in the import dialog.
+     */
+    private Setting.UserString threadCountSetting;
+
+    /**
+     * The character set of the source files, null for the platform default.
+     */
+    private String encoding;
+
+    /**
+     * The directory of the parse cache, or null to parse every file.
+     */
+    private File cacheDirectory;
+
+    /**
+     * The number of bytes the parse cache may take up.
+     */
+    private long cacheSizeLimit = 64L * 1024 * 1024;
+
+    /**
+     * The setting for the cache directory shown in the import dialog.
+     */
+    private Setting.UserString cacheDirectorySetting;
+
+    /**
+     * The parse cache of the running import, or null if there is none.
+     */
+    private ParseCache parseCache;
+
+    /**
+     * Whether a re-import only applies the files and classifiers which
+     * changed since the previous import.
+     */
+    private boolean incremental;
+
+    /**
+     * The setting for incremental imports shown in the import dialog.
+     */
+    private Setting.BooleanSelection incrementalSetting;
+
+    /**
+     * The state of the running incremental import, or null.
+     */
+    private IncrementalImport incrementalImport;
+
+    /**
+     * The progress of the running import, or null.
+     */
+    private ImportProgress progress;
+
+    /**
+     * The identifiers shared by the files of the running import, or null.
+     */
+    private SymbolTable symbols;
+
+    /**
+     * The state kept between the imports of a watch session, or null.
+     */
+    private WatchSession session;
+
+    /**
+     * Recognises copies of files already imported in the running import, or
+     * null.
+     */
+    private DuplicateFilter duplicates;
+
+    /**
+     * The problems found by the running or last import, in file order.
+     */
+    private List<Diagnostic> diagnostics = Collections.emptyList();
+
+    /**
+     * The number of copies skipped by the last import.
+     */
+    private int duplicateCount;
+
+    /**
+     * The time saved by skipping copies in the last import, in nanoseconds.
+     */
+    private long duplicateTimeSaved;
+
+    /**
+     * Files of at least this many bytes are imported in streaming mode, 0
+     * if no file is.
+     */
+    private long streamingThreshold;
+
+    /**
+     * The setting for the streaming threshold shown in the import dialog.
+     */
+    private Setting.UserString streamingThresholdSetting;
+
+    /**
+     * Whether files are lexed by the hand-written {@link IDLScanner} rather
+     * than the generated lexer.
+     */
+    private boolean fastLexer;
+
+    /**
+     * The setting for the lexer shown in the import dialog.
+     */
+    private Setting.BooleanSelection fastLexerSetting;
+
+    /**
+     * Whether files are parsed by the ANTLR 4 {@link IDL4Parser} rather
+     * than the ANTLR 2 {@link IDLParser}.
+     */
+    private boolean antlr4Parser;
+
+    /**
+     * The setting for the parser shown in the import dialog.
+     */
+    private Setting.BooleanSelection antlr4ParserSetting;
+
+    /**
+     * Told about the declarations and errors of each file, or null.
+     */
+    private ParseEventListener parseEventListener;
+
     /**
      * Default constructor.
      */
@@ -88,54 +247,1000 @@ public class IDLFileImport implements ImportInterface {
         throws ImportException {
 
         currentProject = p;
-        Collection newElements = new HashSet();
-        monitor.setMaximumProgress(files.size());
-        int count = 1;
-        for (Iterator it = files.iterator(); it.hasNext();) {
-            File file = (File) it.next();
-            String fileName = file.getName();
+        encoding = settings.getInputSourceEncoding();
+        if (threadCountSetting != null) {
+            setThreadCount(threadCountSetting.getUserString());
+        }
+        if (cacheDirectorySetting != null) {
+            String directory = cacheDirectorySetting.getUserString();
+            cacheDirectory = directory == null
+                || directory.trim().length() == 0
+                ? null : new File(directory.trim());
+        }
+        if (streamingThresholdSetting != null) {
+            setStreamingThreshold(streamingThresholdSetting.getUserString());
+        }
+        parseCache = cacheDirectory == null
+            ? null : new ParseCache(cacheDirectory, cacheSizeLimit);
+        if (incrementalSetting != null) {
+            incremental = incrementalSetting.isSelected();
+        }
+        if (fastLexerSetting != null) {
+            fastLexer = fastLexerSetting.isSelected();
+        }
+        if (antlr4ParserSetting != null) {
+            antlr4Parser = antlr4ParserSetting.isSelected();
+        }
+        incrementalImport = incremental
+            ? new IncrementalImport(p.getModel()) : null;
+        if (incrementalImport != null && session != null) {
+            for (String fileName : session.takeOutdated()) {
+                incrementalImport.forget(fileName);
+            }
+        }
+        // the framework passes a raw collection of files
+        @SuppressWarnings("unchecked")
+        Collection<File> fileList = files;
+        progress = new ImportProgress(monitor, getTotalSize(fileList),
+                fileList.size());
+        duplicates = new DuplicateFilter();
+        symbols = session != null ? session.getSymbols() : new SymbolTable();
+        diagnostics = new ArrayList<Diagnostic>();
+        try {
+            Collection<Object> newElements;
+            if (threadCount > 1 && fileList.size() > 1) {
+                newElements = parseFilesConcurrently(fileList);
+            } else {
+                newElements = parseFilesSequentially(fileList);
+            }
+            if (progress.isCanceled()) {
+                // TODO: I18N
+                monitor.updateSubTask("Import cancelled");
+            } else if (incrementalImport != null) {
+                // only when all files have been seen
+                incrementalImport.finish();
+            }
+            duplicateCount = duplicates.getDuplicates();
+            duplicateTimeSaved = duplicates.getSavedTime();
+            if (duplicateCount > 0) {
+                // TODO: I18N
+                String message = String.format(
+                        "Skipped %d copies of other files, saving %d ms",
+                        duplicateCount, duplicateTimeSaved / 1000000);
+                LOG.info(message);
+                monitor.updateSubTask(message);
+            }
+            if (!diagnostics.isEmpty()) {
+                reportDiagnostics(monitor);
+            }
+            return newElements;
+        } finally {
+            duplicates = null;
+            LOG.log(Level.FINE, "Distinct identifiers: {0}", symbols.size());
+            symbols = null;
+            progress = null;
+            incrementalImport = null;
+            if (parseCache != null) {
+                LOG.log(Level.FINE, "Parse cache hits: {0}, misses: {1}",
+                        new Object[] {
+                            parseCache.getHits(), parseCache.getMisses(),
+                        });
+                parseCache = null;
+            }
+        }
+    }
+
+    /*
+     * Add up the size of the files to import.
+     */
+    private static long getTotalSize(Collection<File> files) {
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    /**
+     * Parse the files and build the model one file after the other.
+     * <p>
+     * A cancelled import stops between two definitions of a file, without
+     * applying that file, so the model holds the complete declarations of
+     * the files before it.
+     */
+    private Collection<Object> parseFilesSequentially(Collection<File> files)
+        throws ImportException {
+        Collection<Object> newElements = new HashSet<Object>();
+        for (Iterator<File> it = files.iterator(); it.hasNext();) {
+            if (progress.isCanceled()) {
+                break;
+            }
+            File file = it.next();
+            if (isStreamed(file)) {
+                try {
+                    newElements.addAll(streamFile(file));
+                    if (session != null) {
+                        // its declarations aren't known; a file which fails
+                        // keeps its last ones, so that it is still imported
+                        // again when a file declaring the same classifiers
+                        // is deleted
+                        session.remove(file);
+                    }
+                } catch (ImportException e) {
+                    fileFailed(file, e);
+                }
+                if (progress.isCanceled()) {
+                    break;
+                }
+                progress.fileDone();
+                continue;
+            }
+            Specification specification;
             try {
-                newElements.addAll(
-                        parseFile(new FileInputStream(file), fileName));
-            } catch (FileNotFoundException e) {
-                throw new ImportException("File not found: " + fileName, e);
+                specification = parseSpecification(file);
+            } catch (ParseCancelledException e) {
+                break;
+            } catch (ImportException e) {
+                fileFailed(file, e);
+                specification = null;
             }
-            monitor.updateProgress(count++);
+            if (specification != null) {
+                newElements.addAll(applySpecification(specification,
+                        getShortName(file.getName())));
+                if (session != null) {
+                    session.put(file, specification);
+                }
+            }
+            progress.fileDone();
         }
         return newElements;
     }
 
     /**
-     * This method parses a single IDL source file.
+     * Lex and parse the files on a pool of worker threads and build the
+     * model from the results in the original file order.
+     * <p>
+     * The parsers only build declaration trees, so the model is built by
+     * the calling thread alone and ends up the same as with a sequential
+     * import, also when it is cancelled.
+     */
+    private Collection<Object> parseFilesConcurrently(Collection<File> files)
+        throws ImportException {
+        Collection<Object> newElements = new HashSet<Object>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(threadCount, files.size()));
+        try {
+            List<Future<Specification>> results =
+                new ArrayList<Future<Specification>>();
+            for (Iterator<File> it = files.iterator(); it.hasNext();) {
+                final File file = it.next();
+                if (isStreamed(file)) {
+                    // streamed later on this thread
+                    results.add(null);
+                    continue;
+                }
+                results.add(executor.submit(
+                        new Callable<Specification>() {
+                            public Specification call()
+                                throws ImportException {
+                                return parseSpecification(file);
+                            }
+                        }));
+            }
+            Iterator<File> it = files.iterator();
+            for (Future<Specification> result : results) {
+                File file = it.next();
+                if (result == null) {
+                    try {
+                        newElements.addAll(streamFile(file));
+                        if (session != null) {
+                            // its declarations aren't known, see
+                            // parseFilesSequentially for a file which fails
+                            session.remove(file);
+                        }
+                    } catch (ImportException e) {
+                        fileFailed(file, e);
+                    }
+                    if (progress.isCanceled()) {
+                        break;
+                    }
+                    progress.fileDone();
+                    continue;
+                }
+                Specification specification;
+                try {
+                    specification = getResult(result);
+                } catch (ParseCancelledException e) {
+                    break;
+                } catch (ImportException e) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw e;
+                    }
+                    fileFailed(file, e);
+                    specification = null;
+                }
+                if (progress.isCanceled()) {
+                    break;
+                }
+                if (specification != null) {
+                    newElements.addAll(applySpecification(specification,
+                            getShortName(file.getName())));
+                    if (session != null) {
+                        session.put(file, specification);
+                    }
+                }
+                progress.fileDone();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return newElements;
+    }
+
+    /*
+     * Record why a file couldn't be imported, so that the import can go on
+     * with the other files.
+     */
+    private void fileFailed(File file, ImportException e) {
+        String fileName = getShortName(file.getName());
+        LOG.log(Level.FINE, "Unable to import " + fileName, e);
+        diagnostics.add(Diagnostic.create(fileName, e));
+    }
+
+    /*
+     * Tell the user about the problems of the import, which finished
+     * nonetheless.
+     */
+    private void reportDiagnostics(ProgressMonitor monitor) {
+        Set<String> files = new HashSet<String>();
+        StringBuilder text = new StringBuilder();
+        for (Diagnostic diagnostic : diagnostics) {
+            files.add(diagnostic.getFileName());
+            text.append(diagnostic).append('\n');
+        }
+        // TODO: I18N
+        String summary = String.format("%d problems in %d files",
+                diagnostics.size(), files.size());
+        LOG.log(Level.WARNING, "{0}:\n{1}", new Object[] {summary, text});
+        monitor.notifyMessage("Import problems",
+                summary + ", everything else was imported:",
+                text.toString());
+    }
+
+    /*
+     * Wait for a parse result, updating the progress meanwhile and passing
+     * on the ImportException of a failed parse.
+     */
+    private Specification getResult(
+            Future<Specification> result) throws ImportException {
+        try {
+            while (true) {
+                try {
+                    return result.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    progress.update(false);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImportException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ImportException) {
+                throw (ImportException) e.getCause();
+            }
+            if (e.getCause() instanceof ParseCancelledException) {
+                throw (ParseCancelledException) e.getCause();
+            }
+            throw new ImportException("Parser failure", e.getCause());
+        }
+    }
+
+    /**
+     * Parse a single file into a tree of declarations.  This doesn't access
+     * the model and may be called from any thread, e.g. to validate files
+     * without importing them.
+     *
+     * @param file the IDL file to parse
+     * @return the declarations of the file, or null if an incremental import
+     *         is running and the file didn't change since it was imported
+     * @throws ImportException if the file can't be read or parsed
+     * @throws ParseCancelledException if the running import was cancelled
+     */
+    Specification parseSpecification(File file)
+        throws ImportException {
+
+        final String fileName = getShortName(file.getName());
+        IncrementalImport incrementalState = incrementalImport;
+        DuplicateFilter duplicateFilter = duplicates;
+        ImportProgress importProgress = progress;
+        final ByteBuffer bytes;
+        final String key;
+        try {
+            bytes = SourceBuffer.readBytes(file);
+            key = ParseCache.getKey(bytes, encoding,
+                    antlr4Parser ? IDL4Parser.class.getName()
+                            : IDLParser.class.getName());
+        } catch (FileNotFoundException e) {
+            throw new ImportException("File not found: " + fileName, e);
+        } catch (IOException e) {
+            throw new ImportException("File: " + fileName, e);
+        }
+        long size = bytes.remaining();
+        if (incrementalState != null
+                && incrementalState.isUnchanged(fileName, key)) {
+            LOG.log(Level.FINE, "Skipped unchanged {0}", fileName);
+            if (importProgress != null) {
+                importProgress.skipFile(size);
+            }
+            return null;
+        }
+        if (duplicateFilter == null) {
+            return parseContents(bytes, key, fileName);
+        }
+        FutureTask<Specification> task = new FutureTask<Specification>(
+                new Callable<Specification>() {
+                    public Specification call() throws ImportException {
+                        return parseContents(bytes, key, fileName);
+                    }
+                });
+        Specification specification = duplicateFilter.parse(key, task);
+        if (!task.isDone()) {
+            // a copy of another file
+            if (importProgress != null) {
+                importProgress.skipFile(size);
+            }
+            List<Diagnostic> copied = new ArrayList<Diagnostic>();
+            for (Diagnostic diagnostic : specification.getDiagnostics()) {
+                copied.add(diagnostic.forFile(fileName));
+            }
+            return new Specification(fileName,
+                    specification.getDefinitions(), key, copied);
+        }
+        return specification;
+    }
+
+    /*
+     * Get the declarations of the contents of a file from the parse cache,
+     * or parse them.
+     */
+    private Specification parseContents(ByteBuffer bytes, String key,
+            String fileName) throws ImportException {
+        ParseCache cache = parseCache;
+        WatchSession watchSession = session;
+        ImportProgress importProgress = progress;
+        long size = bytes.remaining();
+        if (watchSession != null) {
+            Specification seen = watchSession.get(key, fileName);
+            if (seen != null) {
+                if (importProgress != null) {
+                    importProgress.skipFile(size);
+                }
+                return seen;
+            }
+        }
+        if (cache != null) {
+            Specification cached = cache.get(key, fileName);
+            if (cached != null) {
+                if (importProgress != null) {
+                    importProgress.skipFile(size);
+                }
+                return cached;
+            }
+        }
+        SourceBuffer source;
+        try {
+            source = SourceBuffer.decode(bytes, encoding);
+        } catch (IOException e) {
+            throw new ImportException("File: " + fileName, e);
+        }
+        ImportProgress.FileProgress fileProgress = importProgress == null
+            ? null : importProgress.startFile(source, size);
+        List<Diagnostic> found = new ArrayList<Diagnostic>();
+        Specification parsed = parse(source, fileName, fileProgress, found);
+        if (fileProgress != null) {
+            fileProgress.done();
+        }
+        Specification specification = new Specification(fileName,
+                parsed.getDefinitions(), key, found);
+        if (cache != null && found.isEmpty()) {
+            // a file with errors is parsed again until it is fixed
+            cache.put(key, specification);
+        }
+        return specification;
+    }
+
+    /*
+     * Check whether a file is large enough to be imported in streaming mode.
+     */
+    private boolean isStreamed(File file) {
+        return streamingThreshold > 0 && file.length() >= streamingThreshold;
+    }
+
+    /**
+     * Import a file in streaming mode: each top level definition is applied
+     * to the model as soon as it has been parsed, and the file is read and
+     * decoded as the lexer goes.  Memory use depends on the largest
+     * definition rather than on the size of the file.
+     * <p>
+     * This must be called on the thread which owns the model.  The parse
+     * cache isn't used, and the file is applied in full by an incremental
+     * import.  A cancelled import stops after a complete definition, so
+     * part of the file may have been applied.
+     *
+     * @param file the file to import
+     * @return the new model elements
+     * @throws ImportException if the file can't be read or parsed
+     */
+    private Collection<?> streamFile(File file) throws ImportException {
+        String fileName = getShortName(file.getName());
+        long start = System.nanoTime();
+        Modeler modeller = new Modeler(currentProject.getModel(), fileName);
+        DeclarationApplier applier = new DeclarationApplier(modeller);
+        List<Diagnostic> found = new ArrayList<Diagnostic>();
+        CountingInputStream in = null;
+        try {
+            in = new CountingInputStream(new FileInputStream(file));
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new BufferedInputStream(in),
+                    SourceBuffer.getCharset(encoding)));
+            skipByteOrderMark(reader);
+            DocComments docComments = new DocComments();
+            IDLLexer lexer = new IDLLexer(reader);
+            lexer.setFilename(fileName);
+            lexer.setDocComments(docComments);
+            IDLParser parser = new IDLParser(lexer);
+            parser.setTokenRing(new TokenRing(lexer, IDLParser.LOOKAHEAD));
+            parser.setBuildAST(false);
+            parser.setFilename(fileName);
+            parser.setDocComments(docComments);
+            parser.setStreamingApplier(applier);
+            parser.setSymbolTable(symbols);
+            parser.setDiagnostics(found);
+            parser.setParseEventListener(parseEventListener);
+            ImportProgress.FileProgress fileProgress = progress == null
+                ? null : progress.startFile(in, file.length());
+            parser.setParseListener(fileProgress);
+            applier.begin();
+            parser.specification();
+            if (fileProgress != null) {
+                fileProgress.done();
+            }
+        } catch (ParseCancelledException e) {
+            LOG.log(Level.INFO, "Import of {0} cancelled", fileName);
+        } catch (FileNotFoundException e) {
+            throw new ImportException("File not found: " + fileName, e);
+        } catch (IOException e) {
+            throw new ImportException("File: " + fileName, e);
+        } catch (RecognitionException e) {
+            throw new ImportException("File: " + fileName, e);
+        } catch (TokenStreamException e) {
+            throw new ImportException("File: " + fileName, e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // nothing left to do with it
+                }
+            }
+        }
+        diagnostics.addAll(found);
+        if (incrementalImport != null) {
+            incrementalImport.fileStreamed();
+        }
+        LOG.log(Level.FINE, "Streamed {0} in {1} ms", new Object[] {
+            fileName, (System.nanoTime() - start) / 1000000,
+        });
+        return modeller.getNewElements();
+    }
+
+    /*
+     * Skip the byte order mark at the start of a file, as the SourceBuffer
+     * does.
+     */
+    private static void skipByteOrderMark(BufferedReader reader)
+        throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+
+    /**
+     * This method parses a single IDL source file.  Unlike
+     * {@link #parseFiles(Project, Collection, ImportSettings,
+     * ProgressMonitor)} it doesn't recover from syntax errors: the first one
+     * fails the file, which is then left out of the model.
      *
      * @param is The InputStream for the file to parse.
      * @param fileName The name of the parsed file.
-     * @throws ImportException 
+     * @throws ImportException if the file can't be read or parsed
      */
     public Collection parseFile(InputStream is, String fileName)
         throws ImportException {
 
-	int lastSlash = fileName.lastIndexOf('/');
-	if (lastSlash != -1) {
-	    fileName = fileName.substring(lastSlash + 1);
+	fileName = getShortName(fileName);
+	SourceBuffer source;
+	try {
+	    source = SourceBuffer.read(is, encoding);
+	} catch (IOException e) {
+	    throw new ImportException("File: " + fileName, e);
 	}
+	diagnostics = new ArrayList<Diagnostic>();
+	return applySpecification(parse(source, fileName, null, null),
+	        fileName);
+    }
 
-	IDLParser parser =
-	    new IDLParser(new IDLLexer(new BufferedInputStream(is)));
+    /*
+     * Run the parser over the decoded source of a file.  With a list for
+     * the diagnostics the ANTLR 2 parser recovers from syntax errors.  The
+     * ANTLR 4 parser doesn't recover: it stops at the first error, so that
+     * the file fails as a whole.
+     */
+    private Specification parse(SourceBuffer source, String fileName,
+            ParseListener listener, List<Diagnostic> found)
+        throws ImportException {
+        long start = System.nanoTime();
+        if (antlr4Parser) {
+            try {
+                Specification specification = IDL4DeclarationListener.parse(
+                        source, fileName, symbols, listener);
+                LOG.log(Level.FINE, "Parsed {0} with ANTLR 4 in {1} ms",
+                        new Object[] {
+                            fileName, (System.nanoTime() - start) / 1000000,
+                        });
+                return specification;
+            } catch (ParseCancellationException e) {
+                throw new ImportException("File: " + fileName, e.getCause());
+            }
+        }
+	DocComments docComments = new DocComments();
+	TokenStream lexer;
+	if (fastLexer) {
+	    IDLScanner scanner = new IDLScanner(source);
+	    scanner.setFilename(fileName);
+	    scanner.setSymbolTable(symbols);
+	    scanner.setDocComments(docComments);
+	    lexer = scanner;
+	} else {
+	    IDLLexer generatedLexer = new IDLLexer(source);
+	    generatedLexer.setFilename(fileName);
+	    generatedLexer.setDocComments(docComments);
+	    lexer = generatedLexer;
+	}
+	IDLParser parser = new IDLParser(lexer);
+	parser.setTokenRing(new TokenRing(lexer, IDLParser.LOOKAHEAD));
+	parser.setBuildAST(false);
+	parser.setFilename(fileName);
+	parser.setParseListener(listener);
+	parser.setSymbolTable(symbols);
+	parser.setDocComments(docComments);
+	parser.setDiagnostics(found);
+	parser.setParseEventListener(parseEventListener);
 
-	// Create a modeller for the parser
-	Modeler modeller = new Modeler(currentProject.getModel(), fileName);
 	// start parsing at the specification rule
 	try {
-	    parser.specification(modeller);
+	    Specification specification = parser.specification();
+	    LOG.log(Level.FINE, "Parsed {0} in {1} ms", new Object[] {
+	        fileName, (System.nanoTime() - start) / 1000000,
+	    });
+	    return specification;
 	} catch (RecognitionException e) {
             throw new ImportException("File: " + fileName , e);
 	} catch (TokenStreamException e) {
             throw new ImportException("File: " + fileName , e);
 	}
+    }
+
+    /*
+     * Build the model elements for the declarations of a file.  This must
+     * be called on the thread which owns the model.
+     */
+    private Collection<?> applySpecification(Specification specification,
+            String fileName) {
+        diagnostics.addAll(specification.getDiagnostics());
+        String key = specification.getFingerprint();
+        long start = System.nanoTime();
+	// Create a modeller for the parser
+	Modeler modeller = new Modeler(currentProject.getModel(), fileName);
+	DeclarationApplier applier = new DeclarationApplier(modeller);
+        if (duplicates != null && key != null && !duplicates.isFirst(key)) {
+            // the file still gets its component
+            LOG.log(Level.FINE, "Skipped the classifiers of {0}, a copy of "
+                    + "another file", fileName);
+            applier.applyComponent(specification);
+            if (incrementalImport != null) {
+                incrementalImport.applyCopy(specification, modeller);
+            }
+            return modeller.getNewElements();
+        }
+	if (incrementalImport != null) {
+	    incrementalImport.apply(specification, applier, modeller);
+	} else {
+	    applier.apply(specification);
+	}
+	long time = System.nanoTime() - start;
+	LOG.log(Level.FINE, "Modeled {0} in {1} ms", new Object[] {
+	    fileName, time / 1000000,
+	});
+	if (duplicates != null && key != null) {
+	    duplicates.addCost(key, time);
+	}
         return modeller.getNewElements();
     }
 
+    /**
+     * Only lex files with the generated lexer, to see how much of the time
+     * of an import goes into lexing and which tokens it goes to.
+     *
+     * @param files the files to lex, in the encoding of
+     *              {@link #getInputSourceEncoding()}
+     * @return the profile of the lexer over all files
+     * @throws ImportException if a file can't be read or lexed
+     */
+    public LexerProfile profileLexer(Collection<File> files)
+        throws ImportException {
+        LexerProfile profile = new LexerProfile();
+        for (File file : files) {
+            try {
+                profile.lex(SourceBuffer.read(file, encoding),
+                        file.getName());
+            } catch (IOException e) {
+                throw new ImportException("File: " + file.getName(), e);
+            } catch (TokenStreamException e) {
+                throw new ImportException("File: " + file.getName(), e);
+            }
+        }
+        return profile;
+    }
+
+    /*
+     * Strip any leading path from a file name.
+     */
+    private static String getShortName(String fileName) {
+	int lastSlash = fileName.lastIndexOf('/');
+	if (lastSlash != -1) {
+	    return fileName.substring(lastSlash + 1);
+	}
+	return fileName;
+    }
+
+    /**
+     * Set the number of threads used to lex and parse the files of an
+     * import.  The default of 1 parses the files one after the other.
+     *
+     * @param count the number of parser threads
+     */
+    public void setThreadCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException(
+                    "Thread count must be at least 1: " + count);
+        }
+        threadCount = count;
+        if (threadCountSetting != null) {
+            threadCountSetting.setUserString(Integer.toString(count));
+        }
+    }
+
+    /*
+     * Take the thread count from the import settings, ignoring anything
+     * that isn't a positive number.
+     */
+    private void setThreadCount(String count) {
+        if (count == null) {
+            return;
+        }
+        try {
+            int n = Integer.parseInt(count.trim());
+            if (n >= 1) {
+                threadCount = n;
+            }
+        } catch (NumberFormatException e) {
+            // keep the current value
+        }
+    }
+
+    /**
+     * @return the number of threads used to lex and parse files
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Set the character set of the source files.  This is taken from the
+     * import settings when importing through
+     * {@link #parseFiles(Project, Collection, ImportSettings, ProgressMonitor)}
+     * and only needs to be set for {@link #parseFile(InputStream, String)}.
+     *
+     * @param encoding the name of the character set, or null for the
+     *                 platform default
+     */
+    public void setInputSourceEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * @return the character set of the source files, or null for the
+     *         platform default
+     */
+    public String getInputSourceEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Set the directory in which parse results are cached between imports.
+     * A file whose contents are found in the cache isn't parsed again.  The
+     * directory may be shared by several processes.
+     *
+     * @param directory the cache directory, or null to parse every file
+     */
+    public void setCacheDirectory(File directory) {
+        cacheDirectory = directory;
+        if (cacheDirectorySetting != null) {
+            cacheDirectorySetting.setUserString(
+                    directory == null ? "" : directory.getPath());
+        }
+    }
+
+    /**
+     * @return the directory of the parse cache, or null if there is none
+     */
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Choose between full and incremental re-imports.  An incremental import
+     * skips the files which didn't change since they were last imported
+     * and, in the files which did change, only applies the classifiers
+     * whose declaration changed.  Classifiers which are no longer declared
+     * in any imported file are removed from the model.
+     *
+     * @param isIncremental true to import incrementally
+     */
+    public void setIncremental(boolean isIncremental) {
+        incremental = isIncremental;
+        if (incrementalSetting != null) {
+            incrementalSetting.setSelected(isIncremental);
+        }
+    }
+
+    /**
+     * @return true if re-imports are incremental
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Choose the lexer.  The hand-written lexer gives the same tokens as the
+     * one generated from the grammar, several times faster, only counting
+     * lines differently after a newline in a literal, see
+     * {@link IDLScanner}.  Files imported in streaming mode always use the
+     * generated lexer.
+     *
+     * @param isFastLexer true to use the hand-written lexer
+     */
+    public void setFastLexer(boolean isFastLexer) {
+        fastLexer = isFastLexer;
+        if (fastLexerSetting != null) {
+            fastLexerSetting.setSelected(isFastLexer);
+        }
+    }
+
+    /**
+     * @return true if files are lexed by the hand-written lexer
+     */
+    public boolean isFastLexer() {
+        return fastLexer;
+    }
+
+    /**
+     * Choose the parser.  The ANTLR 4 parser builds the same declarations
+     * as the ANTLR 2 one, which stays the default until that has been
+     * shown on real sources.  Files imported in streaming mode always use
+     * the ANTLR 2 parser, as the other one keeps the whole parse tree.
+     * <p>
+     * Unlike the ANTLR 2 parser, the ANTLR 4 parser stops at the first
+     * syntax error in a file and leaves out the whole file rather than
+     * just the definition with the error.  The parse cache keeps the
+     * results of the two parsers apart.
+     *
+     * @param isAntlr4Parser true to parse with the ANTLR 4 parser
+     */
+    public void setAntlr4Parser(boolean isAntlr4Parser) {
+        antlr4Parser = isAntlr4Parser;
+        if (antlr4ParserSetting != null) {
+            antlr4ParserSetting.setSelected(isAntlr4Parser);
+        }
+    }
+
+    /**
+     * @return true if files are parsed by the ANTLR 4 parser
+     */
+    public boolean isAntlr4Parser() {
+        return antlr4Parser;
+    }
+
+    /**
+     * Set a listener to be told about the declarations and syntax errors
+     * of the files the ANTLR 2 parser parses, e.g. to trace an import.
+     * Files taken from the parse cache, and copies of other files, aren't
+     * parsed.  With more than one thread the listener is called by several
+     * threads at once.
+     *
+     * @param listener the listener, or null for none
+     */
+    public void setParseEventListener(ParseEventListener listener) {
+        parseEventListener = listener;
+    }
+
+    /**
+     * Get the problems found by the last import of
+     * {@link #parseFiles(Project, Collection, ImportSettings,
+     * ProgressMonitor)}.  A file which can't be read or parsed doesn't stop
+     * the import: the other files are imported and the problem is listed
+     * here.  A syntax error only leaves out the definition, or the export
+     * of an interface, it was found in, except with the ANTLR 4 parser,
+     * which leaves out the file.
+     *
+     * @return the problems in file order, empty if there were none
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+
+    /**
+     * Start a watch session, in which the same files are imported into the
+     * same project again as they change.  The imports of the session share
+     * their identifiers and remember the declarations of every file, so
+     * that contents seen before aren't parsed again and files can be
+     * removed with {@link #removeFiles(Project, List)}.
+     */
+    void beginSession() {
+        session = new WatchSession();
+    }
+
+    /**
+     * End the watch session and forget what it kept.
+     */
+    void endSession() {
+        session = null;
+    }
+
+    /**
+     * Remove the components of deleted files from the model, with the
+     * classifiers resident in them.
+     * <p>
+     * A removed classifier may also be declared by a file of the watch
+     * session which is left, e.g. by a copy of a deleted file, whose
+     * component then doesn't hold the classifier.  Such files are returned
+     * to be imported again, and the next import applies them although they
+     * didn't change.
+     *
+     * @param p the project the files were imported into
+     * @param files the deleted files
+     * @return the files to import again, empty outside a watch session
+     */
+    List<File> removeFiles(Project p, List<File> files) {
+        Set<String> fileNames = new HashSet<String>();
+        Set<String> removed = new HashSet<String>();
+        for (File file : files) {
+            String fileName = getShortName(file.getName());
+            fileNames.add(fileName);
+            removed.addAll(IncrementalImport.removeFile(p.getModel(),
+                    fileName));
+            if (session != null) {
+                session.remove(file);
+            }
+        }
+        List<File> again = new ArrayList<File>();
+        if (session == null) {
+            return again;
+        }
+        // files with the same name shared the removed components
+        for (File file : session.getFiles()) {
+            if (fileNames.contains(getShortName(file.getName()))) {
+                again.add(file);
+            }
+        }
+        for (File file : session.getDeclaringFiles(removed)) {
+            if (!again.contains(file)) {
+                again.add(file);
+            }
+        }
+        Collections.sort(again);
+        for (File file : again) {
+            session.setOutdated(getShortName(file.getName()));
+        }
+        return again;
+    }
+
+    /**
+     * @return the number of files the last import skipped because they
+     *         were byte-identical to a file imported before them
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * @return the time the last import saved by skipping identical files,
+     *         in milliseconds
+     */
+    public long getDuplicateTimeSaved() {
+        return duplicateTimeSaved / 1000000;
+    }
+
+    /**
+     * Set the size from which files are imported in streaming mode.  A
+     * streamed file is applied to the model one top level definition at a
+     * time, so very large files can be imported with bounded memory.
+     *
+     * @param bytes the minimum size of a streamed file, or 0 to never
+     *              stream
+     */
+    public void setStreamingThreshold(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException(
+                    "Streaming threshold must not be negative: " + bytes);
+        }
+        streamingThreshold = bytes;
+        if (streamingThresholdSetting != null) {
+            streamingThresholdSetting.setUserString(
+                    bytes == 0 ? "" : Long.toString(bytes / BYTES_PER_MB));
+        }
+    }
+
+    /*
+     * Take the streaming threshold in megabytes from the import settings,
+     * an empty value turning streaming off.
+     */
+    private void setStreamingThreshold(String megabytes) {
+        if (megabytes == null || megabytes.trim().length() == 0) {
+            streamingThreshold = 0;
+            return;
+        }
+        try {
+            long n = Long.parseLong(megabytes.trim());
+            if (n >= 0) {
+                streamingThreshold = n * BYTES_PER_MB;
+            }
+        } catch (NumberFormatException e) {
+            // keep the current value
+        }
+    }
+
+    /**
+     * @return the minimum size of a file imported in streaming mode, or 0
+     *         if no file is
+     */
+    public long getStreamingThreshold() {
+        return streamingThreshold;
+    }
+
+    /**
+     * Set how large the parse cache may grow before the least recently used
+     * results are removed.
+     *
+     * @param bytes the size limit of the cache in bytes
+     */
+    public void setCacheSizeLimit(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException(
+                    "Cache size limit must not be negative: " + bytes);
+        }
+        cacheSizeLimit = bytes;
+    }
+
+    /**
+     * @return the size limit of the parse cache in bytes
+     */
+    public long getCacheSizeLimit() {
+        return cacheSizeLimit;
+    }
+
     /*
      * @see org.argouml.moduleloader.ModuleInterface#enable()
      */
@@ -196,6 +1301,52 @@ public class IDLFileImport implements ImportInterface {
      * @see org.argouml.uml.reveng.ImportInterface#getImportSettings()
      */
     public List<SettingsTypes.Setting> getImportSettings() {
-        return null;
+        List<SettingsTypes.Setting> settings =
+            new ArrayList<SettingsTypes.Setting>();
+        if (threadCountSetting == null) {
+            // TODO: I18N
+            threadCountSetting = new Setting.UserString(
+                    "Parser threads",
+                    "Number of files lexed and parsed concurrently",
+                    Integer.toString(threadCount));
+        }
+        settings.add(threadCountSetting);
+        if (cacheDirectorySetting == null) {
+            // TODO: I18N
+            cacheDirectorySetting = new Setting.UserString(
+                    "Parse cache directory",
+                    "Directory for cached parse results, empty for none",
+                    cacheDirectory == null ? "" : cacheDirectory.getPath());
+        }
+        settings.add(cacheDirectorySetting);
+        if (incrementalSetting == null) {
+            // TODO: I18N
+            incrementalSetting = new Setting.BooleanSelection(
+                    "Only re-import changed files", incremental);
+        }
+        settings.add(incrementalSetting);
+        if (streamingThresholdSetting == null) {
+            // TODO: I18N
+            streamingThresholdSetting = new Setting.UserString(
+                    "Streaming threshold (MB)",
+                    "Files at least this large are imported one definition "
+                    + "at a time, empty for none",
+                    streamingThreshold == 0
+                    ? "" : Long.toString(streamingThreshold / BYTES_PER_MB));
+        }
+        settings.add(streamingThresholdSetting);
+        if (fastLexerSetting == null) {
+            // TODO: I18N
+            fastLexerSetting = new Setting.BooleanSelection(
+                    "Use the fast lexer", fastLexer);
+        }
+        settings.add(fastLexerSetting);
+        if (antlr4ParserSetting == null) {
+            // TODO: I18N
+            antlr4ParserSetting = new Setting.BooleanSelection(
+                    "Use the ANTLR 4 parser", antlr4Parser);
+        }
+        settings.add(antlr4ParserSetting);
+        return settings;
     }
 }
@@ -0,0 +1,607 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import antlr.CharScanner;
+import antlr.NoViableAltForCharException;
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+import antlr.TokenStreamRecognitionException;
+
+/**
+ * A hand-written lexer for IDL which can replace the generated
+ * {@link IDLLexer}.
+ * <p>
+ * It gives the same tokens, with the same types and text, as the lexer
+ * rules of <code>idl_modified.g</code>, but works directly on the
+ * character array of a {@link SourceBuffer}.  Each token is picked by a
+ * switch on its first character, and ASCII characters are classified by a
+ * table, so there are no lookahead bitsets or predicted alternatives to go
+ * through.  Characters outside ASCII only occur in literals and comments,
+ * where they are copied or skipped like any other.
+ * <p>
+ * The tokens are {@link SourceToken}s, which refer to their text in the
+ * array.  It is only copied if the parser asks for it, so punctuation and
+ * other tokens which the grammar drops cost no String.  Lines and columns
+ * aren't counted either: only the offsets of the newlines are recorded in
+ * a {@link LineTable}, from which a token works out its position when it
+ * is asked for.
+ * <p>
+ * White space, comments and preprocessor directives are skipped by the
+ * {@link Skipper}.
+ * <p>
+ * Where the generated lexer fails on valid input, this one doesn't:
+ * <ul>
+ * <li>a comment ending in more than one star, as in <code>/** a **&#47;</code>,
+ * unless the generated lexer skips it in bulk too,
+ * <li>a comment or preprocessor directive on the last line of a file without
+ * a newline,
+ * <li>a string literal spelled like a keyword, which the generated lexer
+ * turns into the keyword.
+ * </ul>
+ * <p>
+ * The tokens are at the same lines and columns, except after a newline
+ * inside a string or character literal.  The {@link LineTable} counts such
+ * a newline like any other, while the generated lexer doesn't, so that it
+ * puts the following tokens of the file on the line the literal started on.
+ */
+final class IDLScanner implements TokenStream, IDLTokenTypes {
+
+    /*
+     * The classes of ASCII characters.
+     */
+    private static final byte OTHER = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte UNDERSCORE = 3;
+
+    private static final byte[] CHAR_CLASS = new byte[128];
+
+    /*
+     * The types and text of the tokens made of a single character which
+     * can't start a longer token, indexed by the character.
+     */
+    private static final int[] SINGLE_TYPES = new int[128];
+
+    private static final String[] SINGLE_TEXTS = new String[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            CHAR_CLASS[c] = LETTER;
+            CHAR_CLASS[Character.toUpperCase(c)] = LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            CHAR_CLASS[c] = DIGIT;
+        }
+        CHAR_CLASS['_'] = UNDERSCORE;
+
+        single(';', SEMI);
+        single('?', QUESTION);
+        single('(', LPAREN);
+        single(')', RPAREN);
+        single('[', LBRACK);
+        single(']', RBRACK);
+        single('{', LCURLY);
+        single('}', RCURLY);
+        single('|', OR);
+        single('^', XOR);
+        single('&', AND);
+        single(',', COMMA);
+        single('=', ASSIGN);
+        single('!', NOT);
+        single('+', PLUS);
+        single('-', MINUS);
+        single('~', TILDE);
+        single('*', STAR);
+        single('%', MOD);
+    }
+
+    private static void single(char c, int type) {
+        SINGLE_TYPES[c] = type;
+        SINGLE_TEXTS[c] = String.valueOf(c);
+    }
+
+    private final SourceBuffer source;
+
+    private final char[] chars;
+
+    private final int end;
+
+    private int pos;
+
+    private String fileName;
+
+    private SymbolTable symbols;
+
+    private DocComments docComments;
+
+    private final LineTable lines;
+
+    /*
+     * The position of the token being scanned.
+     */
+    private int tokenStart;
+
+    /*
+     * The token to make the next one out of, or null for a new one.
+     */
+    private SourceToken recycled;
+
+    /**
+     * @param theSource the source to scan, from its current position on
+     */
+    IDLScanner(SourceBuffer theSource) {
+        source = theSource;
+        chars = theSource.array();
+        end = theSource.limit();
+        pos = theSource.position();
+        lines = new LineTable(chars, pos);
+    }
+
+    /**
+     * @param name the name of the file, for error messages
+     */
+    public void setFilename(String name) {
+        fileName = name;
+    }
+
+    /**
+     * Share the text of identifiers with other files.
+     *
+     * @param table the pool of identifiers of the import, or null to make
+     *              a new String for every identifier
+     */
+    void setSymbolTable(SymbolTable table) {
+        symbols = table;
+    }
+
+    /**
+     * Keep the documentation comments for the parser, which must be given
+     * the same instance.
+     *
+     * @param comments the comments, or null to drop them
+     */
+    void setDocComments(DocComments comments) {
+        docComments = comments;
+    }
+
+    /*
+     * @see antlr.TokenStream#nextToken()
+     */
+    public Token nextToken() throws TokenStreamException {
+        return nextToken(null);
+    }
+
+    /**
+     * Scan the next token into a token which the parser is done with.
+     *
+     * @param old the token to recycle, or null or any other kind of
+     *            token for a new one
+     * @return the next token
+     * @throws TokenStreamException if the source can't be scanned
+     * @see TokenRing
+     */
+    Token nextToken(Token old) throws TokenStreamException {
+        recycled = old instanceof SourceToken ? (SourceToken) old : null;
+        skipIgnored();
+        tokenStart = pos;
+        if (pos >= end) {
+            source.position(pos);
+            return makeToken(Token.EOF_TYPE, null);
+        }
+        char c = chars[pos];
+        Token token;
+        if (c < SINGLE_TYPES.length && SINGLE_TYPES[c] != 0) {
+            pos++;
+            token = makeToken(SINGLE_TYPES[c], SINGLE_TEXTS[c]);
+        } else {
+            token = scanToken(c);
+        }
+        source.position(pos);
+        return token;
+    }
+
+    /*
+     * Scan a token which isn't a single character.
+     */
+    private Token scanToken(char c) throws TokenStreamException {
+        switch (c) {
+        case ':':
+            return pair(':', SCOPEOP, "::", COLON, ":");
+        case '<':
+            return pair('<', LSHIFT, "<<", LT, "<");
+        case '>':
+            return pair('>', RSHIFT, ">>", GT, ">");
+        case '/':
+            // comments have been skipped already
+            pos++;
+            return makeToken(DIV, "/");
+        case '.':
+            if (getClass(pos + 1) == DIGIT) {
+                return scanNumber();
+            }
+            pos++;
+            return makeToken(DOT, ".");
+        case '\'':
+            return scanCharLiteral(CHAR_LITERAL);
+        case '"':
+            return scanStringLiteral(STRING_LITERAL);
+        case 'L':
+            if (pos + 1 < end) {
+                if (chars[pos + 1] == '\'') {
+                    pos++;
+                    return scanCharLiteral(WIDE_CHAR_LITERAL);
+                }
+                if (chars[pos + 1] == '"') {
+                    pos++;
+                    return scanStringLiteral(WIDE_STRING_LITERAL);
+                }
+            }
+            return scanIdentifier();
+        case '_':
+            if (getClass(pos + 1) != LETTER) {
+                throw unexpected(pos + 1);
+            }
+            return scanEscapedIdentifier();
+        default:
+            switch (getClass(pos)) {
+            case LETTER:
+                return scanIdentifier();
+            case DIGIT:
+                return scanNumber();
+            default:
+                throw unexpected(pos);
+            }
+        }
+    }
+
+    /*
+     * Scan a token of one character which may be doubled.
+     */
+    private Token pair(char second, int pairType, String pairText,
+            int singleType, String singleText) {
+        if (pos + 1 < end && chars[pos + 1] == second) {
+            pos += 2;
+            return makeToken(pairType, pairText);
+        }
+        pos++;
+        return makeToken(singleType, singleText);
+    }
+
+    private Token scanIdentifier() {
+        int start = pos;
+        skipName();
+        int keyword = Keywords.find(chars, start, pos - start);
+        if (keyword != -1) {
+            return makeToken(Keywords.getType(keyword),
+                    Keywords.getText(keyword));
+        }
+        return makeToken(IDENT, start, pos - start);
+    }
+
+    private Token scanEscapedIdentifier() {
+        // the underscore isn't part of the name
+        int start = ++pos;
+        skipName();
+        return makeToken(IDENT, start, pos - start);
+    }
+
+    /*
+     * Skip a letter followed by letters, digits and underscores.
+     */
+    private void skipName() {
+        int p = pos + 1;
+        while (p < end) {
+            char c = chars[p];
+            if (c >= CHAR_CLASS.length || CHAR_CLASS[c] == OTHER) {
+                break;
+            }
+            p++;
+        }
+        pos = p;
+    }
+
+    /*
+     * Scan an INT, OCTAL, HEX, FIXED or FLOAT literal.  The text of the
+     * token is always the literal as written, like the generated lexer
+     * gives it.
+     */
+    private Token scanNumber() throws TokenStreamException {
+        int start = pos;
+        int type;
+        char c = chars[pos];
+        if (c == '0' && pos + 1 < end
+                && (chars[pos + 1] == 'x' || chars[pos + 1] == 'X')) {
+            pos += 2;
+            if (!isHexDigit(pos)) {
+                throw unexpected(pos);
+            }
+            while (isHexDigit(pos)) {
+                pos++;
+            }
+            type = HEX;
+        } else if (c == '0') {
+            pos++;
+            if (getClass(pos) == DIGIT) {
+                skipDigits();
+                type = OCTAL;
+            } else if (isAt('.')) {
+                // the FLOAT rule, which always makes a FLOAT here
+                scanFraction();
+                type = FLOAT;
+            } else if (isAt('d') || isAt('D')) {
+                pos++;
+                type = FIXED;
+            } else {
+                type = INT;
+            }
+        } else if (c == '.') {
+            type = scanFraction();
+        } else {
+            skipDigits();
+            if (isAt('.')) {
+                pos++;
+                skipDigits();
+                type = scanSuffix(FLOAT);
+            } else {
+                type = scanSuffix(INT);
+            }
+        }
+        SourceToken token = makeToken(type, start, pos - start);
+        switch (type) {
+        case INT:
+            token.setIntegerValue(Literals.parseInteger(chars, start, pos, 10));
+            break;
+        case OCTAL:
+            token.setIntegerValue(Literals.parseInteger(chars, start, pos, 8));
+            break;
+        case HEX:
+            token.setIntegerValue(
+                    Literals.parseInteger(chars, start + 2, pos, 16));
+            break;
+        case FIXED:
+            token.setFixedValue(Literals.parseFixed(chars, start, pos - 1),
+                    Literals.getScale(chars, start, pos - 1));
+            break;
+        default:
+            // a FLOAT, which may end in a 'd' after a leading "0."
+            int digitsEnd = isDigit(pos - 1) ? pos : pos - 1;
+            token.setFloatValue(Literals.parseFloat(chars, start, digitsEnd));
+            break;
+        }
+        return token;
+    }
+
+    /*
+     * Scan the FLOAT rule: a dot, at least one digit and a suffix.
+     */
+    private int scanFraction() throws TokenStreamException {
+        pos++;
+        if (getClass(pos) != DIGIT) {
+            throw unexpected(pos);
+        }
+        skipDigits();
+        return scanSuffix(FLOAT);
+    }
+
+    /*
+     * Scan an optional exponent, which makes a FLOAT, or a 'd', which makes
+     * a FIXED.
+     */
+    private int scanSuffix(int type) throws TokenStreamException {
+        if (isAt('e') || isAt('E')) {
+            pos++;
+            if (isAt('+') || isAt('-')) {
+                pos++;
+            }
+            if (getClass(pos) != DIGIT) {
+                throw unexpected(pos);
+            }
+            skipDigits();
+            return FLOAT;
+        }
+        if (isAt('d') || isAt('D')) {
+            pos++;
+            return FIXED;
+        }
+        return type;
+    }
+
+    private void skipDigits() {
+        while (getClass(pos) == DIGIT) {
+            pos++;
+        }
+    }
+
+    /*
+     * Scan a character literal, whose text is the character with any
+     * escape sequence decoded.
+     */
+    private Token scanCharLiteral(int type) throws TokenStreamException {
+        int p = pos + 1;
+        if (p >= end || chars[p] == '\'') {
+            throw unexpected(p);
+        }
+        int escape = Literals.decodeEscape(chars, p, end);
+        int next;
+        char value;
+        if (escape == -1) {
+            value = chars[p];
+            if (value == '\n') {
+                newline(p);
+            }
+            next = p + 1;
+        } else {
+            value = Literals.escapeValue(escape);
+            next = p + Literals.escapeLength(escape);
+        }
+        if (next >= end || chars[next] != '\'') {
+            throw unexpected(next);
+        }
+        pos = next + 1;
+        SourceToken token = makeToken(type, p, next - p);
+        token.setIntegerValue(value);
+        if (escape != -1) {
+            token.setEscaped();
+        }
+        return token;
+    }
+
+    /*
+     * Scan a string literal, whose text is the contents with any escape
+     * sequences decoded.  They are only checked here and decoded when the
+     * text is asked for.
+     */
+    private Token scanStringLiteral(int type) throws TokenStreamException {
+        int start = pos + 1;
+        int p = start;
+        boolean escaped = false;
+        for (;;) {
+            if (p >= end) {
+                throw unexpected(p);
+            }
+            char c = chars[p];
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                int escape = Literals.decodeEscape(chars, p, end);
+                if (escape != -1) {
+                    escaped = true;
+                    p += Literals.escapeLength(escape);
+                    continue;
+                }
+            } else if (c == '\n') {
+                newline(p);
+            }
+            p++;
+        }
+        pos = p + 1;
+        SourceToken token = makeToken(type, start, p - start);
+        if (escaped) {
+            token.setEscaped();
+        }
+        return token;
+    }
+
+    /*
+     * Skip white space, comments and preprocessor directives.
+     */
+    private void skipIgnored() throws TokenStreamException {
+        pos = Skipper.skip(chars, pos, end, lines, docComments);
+        if (pos == end) {
+            return;
+        }
+        // What is left is a line comment or directive at the end of the
+        // file without a newline, or a comment which doesn't end.
+        char c = chars[pos];
+        if (c == '#') {
+            pos = end;
+        } else if (c == '/' && isAt(pos + 1, '/')) {
+            pos = end;
+        } else if (c == '/' && isAt(pos + 1, '*')) {
+            for (int p = pos + 2; p < end; p++) {
+                if (chars[p] == '\n') {
+                    newline(p);
+                }
+            }
+            throw unexpected(end);
+        }
+    }
+
+    private boolean isAt(char c) {
+        return isAt(pos, c);
+    }
+
+    private boolean isAt(int index, char c) {
+        return index < end && chars[index] == c;
+    }
+
+    private boolean isDigit(int index) {
+        return getClass(index) == DIGIT;
+    }
+
+    private boolean isHexDigit(int index) {
+        if (index >= end) {
+            return false;
+        }
+        return Literals.digit(chars[index], 16) >= 0;
+    }
+
+    /*
+     * Get the class of the ASCII character at an index, OTHER for anything
+     * else.
+     */
+    private byte getClass(int index) {
+        if (index >= end) {
+            return OTHER;
+        }
+        char c = chars[index];
+        return c < CHAR_CLASS.length ? CHAR_CLASS[c] : OTHER;
+    }
+
+    /*
+     * Record the newline at an index.
+     */
+    private void newline(int index) {
+        lines.addNewline(index);
+    }
+
+    /*
+     * Make a token whose text isn't the source it was scanned from.
+     */
+    private Token makeToken(int type, String text) {
+        SourceToken token = recycled;
+        if (token == null) {
+            token = new SourceToken(type, text, lines, tokenStart,
+                    pos - tokenStart);
+        } else {
+            recycled = null;
+            token.set(type, text, lines, tokenStart, pos - tokenStart);
+        }
+        if (docComments != null) {
+            docComments.attach(token);
+        }
+        return token;
+    }
+
+    /*
+     * Make a token whose text is a part of the source, which is copied
+     * when the text is asked for.  Only identifiers are pooled.
+     */
+    private SourceToken makeToken(int type, int start, int length) {
+        SymbolTable table = type == IDENT ? symbols : null;
+        SourceToken token = recycled;
+        if (token == null) {
+            token = new SourceToken(type, lines, tokenStart, start, length,
+                    table);
+        } else {
+            recycled = null;
+            token.set(type, lines, tokenStart, start, length, table);
+        }
+        if (docComments != null) {
+            docComments.attach(token);
+        }
+        return token;
+    }
+
+    /*
+     * Report an unexpected character, or the end of the file, at an index.
+     * All newlines before the index have been recorded.
+     */
+    private TokenStreamException unexpected(int index) {
+        char c = index < end ? chars[index] : CharScanner.EOF_CHAR;
+        return new TokenStreamRecognitionException(
+                new NoViableAltForCharException(c, fileName,
+                        lines.getLine(index), lines.getColumn(index)));
+    }
+}
@@ -0,0 +1,218 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.argouml.taskmgmt.ProgressMonitor;
+
+/**
+ * Reports the progress of an import to a {@link ProgressMonitor} by the
+ * number of bytes parsed, together with the throughput and the estimated
+ * time left.
+ * <p>
+ * Parsers may report bytes from any thread, but the monitor is only updated
+ * from the thread which created this object, the one building the model.
+ */
+final class ImportProgress {
+
+    /**
+     * The progress is reported in thousandths of the total.
+     */
+    private static final int MAXIMUM = 1000;
+
+    /**
+     * Minimum time between two updates of the monitor in nanoseconds.
+     */
+    private static final long UPDATE_INTERVAL = 250 * 1000000L;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    private final ProgressMonitor monitor;
+
+    private final Thread owner = Thread.currentThread();
+
+    private final long totalBytes;
+
+    private final int totalFiles;
+
+    private final long start = System.nanoTime();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicInteger files = new AtomicInteger();
+
+    private long lastUpdate;
+
+    /**
+     * @param theMonitor the monitor to report to
+     * @param theTotalBytes the size of all files to import
+     * @param theTotalFiles the number of files to import
+     */
+    ImportProgress(ProgressMonitor theMonitor, long theTotalBytes,
+            int theTotalFiles) {
+        monitor = theMonitor;
+        totalBytes = Math.max(1, theTotalBytes);
+        totalFiles = theTotalFiles;
+        monitor.setMaximumProgress(MAXIMUM);
+    }
+
+    /**
+     * Create a listener which reports the progress of the parser of one
+     * file by the characters consumed from its source.  It aborts the parse
+     * at the next definition if the import is cancelled.
+     *
+     * @param source the source of the file
+     * @param size the size of the file in bytes
+     * @return the listener to give to the parser
+     */
+    FileProgress startFile(final SourceBuffer source, long size) {
+        return new FileProgress(size) {
+            long getParsedBytes() {
+                int length = source.length();
+                return length == 0
+                    ? 0 : getSize() * source.consumed() / length;
+            }
+        };
+    }
+
+    /**
+     * Create a listener which reports the progress of the parser of one
+     * file by the bytes read from it.
+     *
+     * @param in the stream the file is read through
+     * @param size the size of the file in bytes
+     * @return the listener to give to the parser
+     */
+    FileProgress startFile(final CountingInputStream in, long size) {
+        return new FileProgress(size) {
+            long getParsedBytes() {
+                return Math.min(in.getCount(), getSize());
+            }
+        };
+    }
+
+    /**
+     * Account for a file which doesn't need parsing.
+     *
+     * @param size the size of the file in bytes
+     */
+    void skipFile(long size) {
+        bytes.addAndGet(size);
+    }
+
+    /**
+     * Count a file whose declarations have been applied to the model.
+     */
+    void fileDone() {
+        files.incrementAndGet();
+        update(true);
+    }
+
+    /**
+     * @return true if the user cancelled the import
+     */
+    boolean isCanceled() {
+        return monitor.isCanceled();
+    }
+
+    /**
+     * Update the monitor, unless it was updated very recently or this
+     * isn't the thread building the model.
+     *
+     * @param force true to update even if the monitor was just updated
+     */
+    void update(boolean force) {
+        if (Thread.currentThread() != owner) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (!force && now - lastUpdate < UPDATE_INTERVAL) {
+            return;
+        }
+        lastUpdate = now;
+        long done = Math.min(bytes.get(), totalBytes);
+        monitor.updateProgress((int) (done * MAXIMUM / totalBytes));
+        monitor.updateSubTask(getStatus(done, now - start));
+    }
+
+    /*
+     * Describe the progress, e.g. "3/12 files, 4.2 files/s, 1.3 MB/s,
+     * 0:07 left".
+     */
+    private String getStatus(long done, long elapsed) {
+        double seconds = Math.max(elapsed, 1) / NANOS_PER_SECOND;
+        int filesDone = files.get();
+        double bytesPerSecond = done / seconds;
+        StringBuilder status = new StringBuilder();
+        // TODO: I18N
+        status.append(filesDone).append('/').append(totalFiles)
+            .append(" files, ")
+            .append(String.format("%.1f", filesDone / seconds))
+            .append(" files/s, ")
+            .append(String.format("%.1f", bytesPerSecond / BYTES_PER_MB))
+            .append(" MB/s");
+        if (done > 0 && done < totalBytes) {
+            long left = (long) ((totalBytes - done) / bytesPerSecond);
+            status.append(", ").append(left / 60).append(':')
+                .append(String.format("%02d", left % 60)).append(" left");
+        }
+        return status.toString();
+    }
+
+    /**
+     * Tracks the parse of one file.
+     */
+    abstract class FileProgress implements ParseListener {
+
+        private final long size;
+
+        private long reported;
+
+        private FileProgress(long theSize) {
+            size = theSize;
+        }
+
+        /**
+         * @return the size of the file in bytes
+         */
+        long getSize() {
+            return size;
+        }
+
+        /**
+         * @return the number of bytes of the file parsed so far
+         */
+        abstract long getParsedBytes();
+
+        public void definitionParsed() {
+            if (monitor.isCanceled()) {
+                throw new ParseCancelledException();
+            }
+            long parsed = getParsedBytes();
+            bytes.addAndGet(parsed - reported);
+            reported = parsed;
+            update(false);
+        }
+
+        /**
+         * Account for the rest of the file once the parser is done.
+         */
+        void done() {
+            bytes.addAndGet(size - reported);
+            reported = size;
+        }
+    }
+}
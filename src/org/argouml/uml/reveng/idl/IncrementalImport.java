@@ -0,0 +1,436 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.argouml.model.Model;
+
+/**
+ * Keeps track of what an earlier import made of each source file, so that a
+ * re-import only has to do work for the files and classifiers which changed.
+ * <p>
+ * The component of every imported file is tagged with the fingerprint of
+ * the source, and every top level classifier resident in it with the
+ * fingerprint of its declaration.  Files whose fingerprint didn't change
+ * are not parsed again.  In a changed file only the classifiers whose
+ * declaration changed are applied to the model, and classifiers which are
+ * no longer declared are removed from it.  The fingerprint of a declaration
+ * leaves out where it is, so a classifier which only moved, e.g. since a
+ * line was added above it, just gets its position tags updated.
+ * <p>
+ * An instance covers one import.  It is created and applied on the thread
+ * which owns the model, but {@link #isUnchanged(String, String)} may be
+ * called from any thread.
+ */
+final class IncrementalImport {
+
+    private static final Logger LOG =
+        Logger.getLogger(IncrementalImport.class.getName());
+
+    /**
+     * The tag holding the fingerprint of a source file on its component,
+     * and of a declaration on its classifier.
+     */
+    static final String FINGERPRINT_TAG = "idl.fingerprint";
+
+    /**
+     * The fingerprints of the files imported before, by file name.
+     */
+    private final Map<String, String> fingerprints =
+        new HashMap<String, String>();
+
+    /**
+     * The components of the files imported before, by file name.
+     */
+    private final Map<String, Object> components =
+        new HashMap<String, Object>();
+
+    /**
+     * The names of all classifiers declared in this import.
+     */
+    private final Set<String> declaredNames = new HashSet<String>();
+
+    /**
+     * Classifiers no longer declared in their file, by qualified name.
+     * They are only removed at the end, since they may have moved to
+     * another file.
+     */
+    private final Map<String, Object> obsolete =
+        new LinkedHashMap<String, Object>();
+
+    private int skippedClassifiers;
+
+    /**
+     * Whether a file was imported in streaming mode, so that the
+     * classifiers it declared aren't known.
+     */
+    private boolean streamed;
+
+    /**
+     * Index the components of an earlier import.
+     *
+     * @param model the model to import into
+     */
+    IncrementalImport(Object model) {
+        Collection<?> all = Model.getModelManagementHelper()
+            .getAllModelElementsOfKind(model,
+                    Model.getMetaTypes().getComponent());
+        if (all == null) {
+            return;
+        }
+        for (Object component : all) {
+            String fingerprint = Model.getFacade().getTaggedValueValue(
+                    component, FINGERPRINT_TAG);
+            if (fingerprint != null) {
+                String name = Model.getFacade().getName(component);
+                fingerprints.put(name, fingerprint);
+                components.put(name, component);
+            }
+        }
+    }
+
+    /**
+     * Apply a file again, although its contents didn't change, e.g. since
+     * classifiers it declares were removed with another file.  Only the
+     * classifiers missing from its component are applied.
+     *
+     * @param fileName the name of the file
+     */
+    void forget(String fileName) {
+        fingerprints.remove(fileName);
+    }
+
+    /**
+     * Remove the components of a file which has been deleted, and the
+     * classifiers resident in them.
+     *
+     * @param model the model the file was imported into
+     * @param fileName the name of the file
+     * @return the qualified names of the removed classifiers
+     */
+    static Set<String> removeFile(Object model, String fileName) {
+        Set<String> removed = new HashSet<String>();
+        Collection<?> all = Model.getModelManagementHelper()
+            .getAllModelElementsOfKind(model,
+                    Model.getMetaTypes().getComponent());
+        if (all == null) {
+            return removed;
+        }
+        for (Object component : new ArrayList<Object>(all)) {
+            if (!fileName.equals(Model.getFacade().getName(component))) {
+                continue;
+            }
+            for (Map.Entry<String, Object> entry
+                    : getResidents(component).entrySet()) {
+                LOG.log(Level.INFO, "Removing classifier {0} of the deleted "
+                        + "file {1}", new Object[] {entry.getKey(), fileName});
+                Model.getUmlFactory().delete(entry.getValue());
+                removed.add(entry.getKey());
+            }
+            Model.getUmlFactory().delete(component);
+        }
+        return removed;
+    }
+
+    /**
+     * Get the classifiers a file declares.
+     *
+     * @param specification the declarations of the file
+     * @return the qualified names of its top level interfaces
+     */
+    static Set<String> getDeclaredNames(Specification specification) {
+        Map<String, InterfaceDeclaration> declared =
+            new LinkedHashMap<String, InterfaceDeclaration>();
+        collectInterfaces(specification.getDefinitions(), "", declared);
+        return declared.keySet();
+    }
+
+    /**
+     * Check whether a file is the same as when it was imported before.
+     *
+     * @param fileName the name of the file
+     * @param fingerprint the fingerprint of the file's current contents
+     * @return true if the model is already up to date with the file
+     */
+    boolean isUnchanged(String fileName, String fingerprint) {
+        return fingerprint != null
+            && fingerprint.equals(fingerprints.get(fileName));
+    }
+
+    /**
+     * Apply the declarations of a changed or new file, leaving out the
+     * classifiers whose declaration didn't change.
+     *
+     * @param specification the declarations of the file
+     * @param applier the applier to use
+     * @param modeler the modeler the applier works on
+     */
+    void apply(Specification specification, DeclarationApplier applier,
+            Modeler modeler) {
+        Map<String, InterfaceDeclaration> declared =
+            new LinkedHashMap<String, InterfaceDeclaration>();
+        collectInterfaces(specification.getDefinitions(), "", declared);
+        declaredNames.addAll(declared.keySet());
+
+        Object component = components.get(specification.getFileName());
+        Map<String, String> current = new HashMap<String, String>();
+        if (component != null) {
+            Map<String, Object> residents = getResidents(component);
+            for (Map.Entry<String, InterfaceDeclaration> entry
+                    : declared.entrySet()) {
+                Object classifier = residents.get(entry.getKey());
+                String fingerprint = getFingerprint(entry.getValue());
+                current.put(entry.getKey(), fingerprint);
+                if (classifier != null && fingerprint.equals(
+                        Model.getFacade().getTaggedValueValue(
+                                classifier, FINGERPRINT_TAG))) {
+                    applier.skip(entry.getValue());
+                    updatePositions(classifier, entry.getValue());
+                    skippedClassifiers++;
+                }
+            }
+        }
+
+        applier.apply(specification);
+
+        component = modeler.getComponent();
+        for (Map.Entry<String, Object> entry
+                : getResidents(component).entrySet()) {
+            InterfaceDeclaration declaration = declared.get(entry.getKey());
+            if (declaration == null) {
+                obsolete.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            String fingerprint = current.get(entry.getKey());
+            if (fingerprint == null) {
+                fingerprint = getFingerprint(declaration);
+            }
+            Model.getCoreHelper().setTaggedValue(entry.getValue(),
+                    FINGERPRINT_TAG, fingerprint);
+        }
+        setFingerprint(component, specification);
+    }
+
+    /**
+     * Note that only the component of a file was applied, since the file is
+     * a copy of another one applied before.  Its classifiers reside in the
+     * component of the other file, so the ones still resident in its own
+     * component are left over from what it was before.
+     *
+     * @param specification the declarations of the file
+     * @param modeler the modeler the component was applied with
+     */
+    void applyCopy(Specification specification, Modeler modeler) {
+        Map<String, InterfaceDeclaration> declared =
+            new LinkedHashMap<String, InterfaceDeclaration>();
+        collectInterfaces(specification.getDefinitions(), "", declared);
+        declaredNames.addAll(declared.keySet());
+        Object component = modeler.getComponent();
+        for (Map.Entry<String, Object> entry
+                : getResidents(component).entrySet()) {
+            if (!declared.containsKey(entry.getKey())) {
+                obsolete.put(entry.getKey(), entry.getValue());
+            }
+        }
+        setFingerprint(component, specification);
+    }
+
+    /*
+     * Update the position tags of a classifier which wasn't applied since
+     * its declaration didn't change, but which may have moved in the file.
+     */
+    private static void updatePositions(Object classifier,
+            InterfaceDeclaration declaration) {
+        updatePosition(classifier, declaration.getPosition());
+        Map<String, SourcePosition> positions =
+            new HashMap<String, SourcePosition>();
+        for (Declaration export : declaration.getExports()) {
+            if (export instanceof OperationDeclaration) {
+                positions.put(export.getName(), export.getPosition());
+            }
+        }
+        for (Object operation
+                : Model.getFacade().getOperations(classifier)) {
+            SourcePosition position =
+                positions.get(Model.getFacade().getName(operation));
+            if (position != null) {
+                updatePosition(operation, position);
+            }
+        }
+    }
+
+    private static void updatePosition(Object element,
+            SourcePosition position) {
+        String value = position.toString();
+        if (!value.equals(Model.getFacade().getTaggedValueValue(element,
+                Modeler.SOURCE_POSITION_TAG))) {
+            Model.getCoreHelper().setTaggedValue(element,
+                    Modeler.SOURCE_POSITION_TAG, value);
+        }
+    }
+
+    /*
+     * Tag the component of a file with the fingerprint of its source, unless
+     * the file has errors and has to be imported again until it is fixed.
+     */
+    private static void setFingerprint(Object component,
+            Specification specification) {
+        if (specification.getFingerprint() != null
+                && specification.getDiagnostics().isEmpty()) {
+            Model.getCoreHelper().setTaggedValue(component, FINGERPRINT_TAG,
+                    specification.getFingerprint());
+        }
+    }
+
+    /**
+     * Note that a file was applied in full in streaming mode.  Its
+     * declarations aren't known, so no classifiers are removed at the end.
+     */
+    void fileStreamed() {
+        streamed = true;
+    }
+
+    /**
+     * Remove the classifiers which are no longer declared in any of the
+     * imported files.  This must be called once all files have been
+     * applied.
+     */
+    void finish() {
+        if (streamed && !obsolete.isEmpty()) {
+            LOG.log(Level.INFO, "Keeping {0} classifiers which are no longer "
+                    + "declared since some files were streamed",
+                    obsolete.size());
+            obsolete.clear();
+        }
+        int removed = 0;
+        for (Map.Entry<String, Object> entry : obsolete.entrySet()) {
+            if (!declaredNames.contains(entry.getKey())) {
+                LOG.log(Level.INFO, "Removing classifier {0} which is no "
+                        + "longer declared", entry.getKey());
+                Model.getUmlFactory().delete(entry.getValue());
+                removed++;
+            }
+        }
+        obsolete.clear();
+        LOG.log(Level.FINE, "Unchanged classifiers: {0}, removed: {1}",
+                new Object[] {skippedClassifiers, removed});
+    }
+
+    /*
+     * Collect the top level interfaces of a file by their qualified name.
+     */
+    private static void collectInterfaces(List<Declaration> declarations,
+            String prefix, Map<String, InterfaceDeclaration> declared) {
+        for (Declaration declaration : declarations) {
+            if (declaration instanceof ModuleDeclaration) {
+                collectInterfaces(
+                        ((ModuleDeclaration) declaration).getDefinitions(),
+                        prefix + declaration.getName() + ".", declared);
+            } else if (declaration instanceof InterfaceDeclaration) {
+                declared.put(prefix + declaration.getName(),
+                        (InterfaceDeclaration) declaration);
+            }
+        }
+    }
+
+    /*
+     * Get the classifiers resident in a component by their qualified name.
+     */
+    private static Map<String, Object> getResidents(Object component) {
+        Map<String, Object> residents = new HashMap<String, Object>();
+        Collection<?> residences =
+            Model.getFacade().getResidentElements(component);
+        if (residences == null) {
+            return residents;
+        }
+        for (Iterator<?> it = residences.iterator(); it.hasNext();) {
+            Object resident = Model.getFacade().getResident(it.next());
+            if (resident != null) {
+                residents.put(getQualifiedName(resident), resident);
+            }
+        }
+        return residents;
+    }
+
+    /*
+     * Get the name of an element, qualified by the packages it is in, as
+     * the DeclarationApplier passes it to the Modeler.
+     */
+    private static String getQualifiedName(Object element) {
+        List<String> names = new ArrayList<String>();
+        Object current = element;
+        while (current != null && !Model.getFacade().isAModel(current)) {
+            names.add(0, Model.getFacade().getName(current));
+            current = Model.getFacade().getNamespace(current);
+        }
+        StringBuilder name = new StringBuilder();
+        for (String part : names) {
+            if (name.length() > 0) {
+                name.append('.');
+            }
+            name.append(part);
+        }
+        return name.toString();
+    }
+
+    /*
+     * Compute the fingerprint of a declaration, leaving out the positions of
+     * it and everything in it.
+     */
+    private static String getFingerprint(Declaration declaration) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            DataOutputStream out = new DataOutputStream(
+                    new DigestOutputStream(new NullOutputStream(), digest));
+            DeclarationFormat.write(out, declaration, false);
+            out.close();
+            return ParseCache.toHex(digest.digest());
+        } catch (IOException e) {
+            // not possible when writing to memory
+            throw new IllegalStateException(e);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to provide SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A stream which drops everything, for feeding a digest.
+     */
+    private static final class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
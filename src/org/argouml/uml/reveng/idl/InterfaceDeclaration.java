@@ -0,0 +1,57 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An IDL interface and the declarations it exports.  Forward declarations
+ * are not represented.
+ */
+final class InterfaceDeclaration extends Declaration {
+
+    private final List<String> inheritedInterfaces;
+    private final List<Declaration> exports;
+
+    /**
+     * @param name the simple name of the interface
+     * @param position where the interface starts
+     * @param inheritedInterfaces the scoped names of the inherited
+     *                interfaces as written in the source
+     * @param exports the declarations of the interface body in source order
+     * @param documentation the documentation comment, or null
+     */
+    InterfaceDeclaration(String name, SourcePosition position,
+            List<String> inheritedInterfaces, List<Declaration> exports,
+            String documentation) {
+        super(name, position, documentation);
+        this.inheritedInterfaces = Collections.unmodifiableList(
+                new ArrayList<String>(inheritedInterfaces));
+        this.exports = Collections.unmodifiableList(
+                new ArrayList<Declaration>(exports));
+    }
+
+    /**
+     * @return the scoped names of the inherited interfaces, e.g. "::A::B"
+     */
+    public List<String> getInheritedInterfaces() {
+        return inheritedInterfaces;
+    }
+
+    /**
+     * @return the declarations of the interface body in source order
+     */
+    public List<Declaration> getExports() {
+        return exports;
+    }
+}
@@ -0,0 +1,186 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Recognises the keywords of IDL in a character buffer by a perfect hash,
+ * without making a String of the identifier first.
+ * <p>
+ * The hash mixes the first, second and last character and the length of
+ * an identifier with one multiplication.  The multiplier was chosen so that
+ * no two keywords share a slot, so a lookup is the hash, one length check
+ * and one comparison of the characters.  Adding a keyword may need a new
+ * multiplier, which the class initialization checks.
+ */
+final class Keywords implements IDLTokenTypes {
+
+    private static final int MULTIPLIER = 0xc667bb57;
+
+    private static final int SLOT_BITS = 8;
+
+    private static final int MIN_LENGTH = 2;
+
+    private static final char[][] TEXTS = new char[1 << SLOT_BITS][];
+
+    private static final String[] STRINGS = new String[1 << SLOT_BITS];
+
+    private static final int[] TYPES = new int[1 << SLOT_BITS];
+
+    private static int maxLength;
+
+    static {
+        add("abstract", LITERAL_abstract);
+        add("local", LITERAL_local);
+        add("interface", LITERAL_interface);
+        add("custom", LITERAL_custom);
+        add("valuetype", LITERAL_valuetype);
+        add("eventtype", LITERAL_eventtype);
+        add("module", LITERAL_module);
+        add("truncatable", LITERAL_truncatable);
+        add("supports", LITERAL_supports);
+        add("public", LITERAL_public);
+        add("private", LITERAL_private);
+        add("factory", LITERAL_factory);
+        add("in", LITERAL_in);
+        add("const", LITERAL_const);
+        add("TRUE", LITERAL_TRUE);
+        add("FALSE", LITERAL_FALSE);
+        add("typedef", LITERAL_typedef);
+        add("native", LITERAL_native);
+        add("float", LITERAL_float);
+        add("double", LITERAL_double);
+        add("long", LITERAL_long);
+        add("short", LITERAL_short);
+        add("unsigned", LITERAL_unsigned);
+        add("char", LITERAL_char);
+        add("wchar", LITERAL_wchar);
+        add("boolean", LITERAL_boolean);
+        add("octet", LITERAL_octet);
+        add("any", LITERAL_any);
+        add("Object", LITERAL_Object);
+        add("struct", LITERAL_struct);
+        add("union", LITERAL_union);
+        add("switch", LITERAL_switch);
+        add("case", LITERAL_case);
+        add("default", LITERAL_default);
+        add("enum", LITERAL_enum);
+        add("sequence", LITERAL_sequence);
+        add("string", LITERAL_string);
+        add("wstring", LITERAL_wstring);
+        add("exception", LITERAL_exception);
+        add("oneway", LITERAL_oneway);
+        add("void", LITERAL_void);
+        add("out", LITERAL_out);
+        add("inout", LITERAL_inout);
+        add("raises", LITERAL_raises);
+        add("context", LITERAL_context);
+        add("fixed", LITERAL_fixed);
+        add("ValueBase", LITERAL_ValueBase);
+        add("import", LITERAL_import);
+        add("typeid", LITERAL_typeid);
+        add("typeprefix", LITERAL_typeprefix);
+        add("readonly", LITERAL_readonly);
+        add("attribute", LITERAL_attribute);
+        add("getraises", LITERAL_getraises);
+        add("setraises", LITERAL_setraises);
+        add("component", LITERAL_component);
+        add("provides", LITERAL_provides);
+        add("uses", LITERAL_uses);
+        add("multiple", LITERAL_multiple);
+        add("emits", LITERAL_emits);
+        add("publishes", LITERAL_publishes);
+        add("consumes", LITERAL_consumes);
+        add("home", LITERAL_home);
+        add("manages", LITERAL_manages);
+        add("primarykey", LITERAL_primarykey);
+        add("finder", LITERAL_finder);
+    }
+
+    private Keywords() {
+        // static methods only
+    }
+
+    private static void add(String text, int type) {
+        char[] chars = text.toCharArray();
+        int slot = getSlot(chars, 0, chars.length);
+        if (TEXTS[slot] != null) {
+            throw new IllegalStateException("Keywords " + text + " and "
+                    + STRINGS[slot] + " collide, choose another multiplier");
+        }
+        TEXTS[slot] = chars;
+        STRINGS[slot] = text;
+        TYPES[slot] = type;
+        maxLength = Math.max(maxLength, chars.length);
+    }
+
+    private static int getSlot(char[] chars, int offset, int length) {
+        int key = chars[offset] | chars[offset + 1] << 7
+            | chars[offset + length - 1] << 14 | length << 21;
+        return (key * MULTIPLIER) >>> (Integer.SIZE - SLOT_BITS);
+    }
+
+    /**
+     * Look up an identifier.
+     *
+     * @param chars the buffer holding the identifier
+     * @param offset the index of its first character
+     * @param length the number of characters
+     * @return the slot of the keyword, or -1 if the identifier isn't one
+     */
+    static int find(char[] chars, int offset, int length) {
+        if (length < MIN_LENGTH || length > maxLength) {
+            return -1;
+        }
+        int slot = getSlot(chars, offset, length);
+        char[] keyword = TEXTS[slot];
+        if (keyword == null || keyword.length != length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (keyword[i] != chars[offset + i]) {
+                return -1;
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Get the token type of an identifier.
+     *
+     * @param chars the buffer holding the identifier
+     * @param offset the index of its first character
+     * @param length the number of characters
+     * @param defaultType the type to return if it isn't a keyword
+     * @return the type of the keyword, or the default
+     */
+    static int getType(char[] chars, int offset, int length,
+            int defaultType) {
+        int slot = find(chars, offset, length);
+        return slot == -1 ? defaultType : TYPES[slot];
+    }
+
+    /**
+     * @param slot a slot returned by {@link #find(char[], int, int)}
+     * @return the token type of the keyword
+     */
+    static int getType(int slot) {
+        return TYPES[slot];
+    }
+
+    /**
+     * @param slot a slot returned by {@link #find(char[], int, int)}
+     * @return the keyword, always the same String instance
+     */
+    static String getText(int slot) {
+        return STRINGS[slot];
+    }
+}
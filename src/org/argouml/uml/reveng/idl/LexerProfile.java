@@ -0,0 +1,252 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import antlr.Token;
+import antlr.TokenStreamException;
+
+/**
+ * Where the generated {@link IDLLexer} spends its time, by token type.
+ * <p>
+ * Only the lexer runs, there is no parser and no model, so this is the
+ * baseline for the time of an import spent lexing.  White space, comments
+ * and preprocessor directives are left to the lexer rules, as without a
+ * {@link SourceBuffer}, and counted under the WS, SL_COMMENT, ML_COMMENT
+ * and PREPROC_DIRECTIVE types although the lexer drops them.
+ * <p>
+ * The time of a token runs from the start of one match of the lexer to the
+ * start of the next, taken with {@link System#nanoTime()}.  Taking the time
+ * costs about as much as lexing a short token, so the shares are more
+ * telling than the totals, which are slower than an unprofiled lexer.
+ */
+public final class LexerProfile {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    /**
+     * The names of the token types, as in {@link IDLTokenTypes}.
+     */
+    private static final String[] NAMES = getTypeNames();
+
+    private static final int TYPE_COUNT = NAMES.length;
+
+    private final long[] counts = new long[TYPE_COUNT];
+
+    private final long[] characters = new long[TYPE_COUNT];
+
+    private final long[] nanos = new long[TYPE_COUNT];
+
+    private int fileCount;
+
+    private long totalCharacters;
+
+    private long totalNanos;
+
+    // The source lexed now, and the start of its current match or -1.
+    private SourceBuffer source;
+    private int matchStart = -1;
+    private long matchTime;
+
+    private static String[] getTypeNames() {
+        Field[] fields = IDLTokenTypes.class.getFields();
+        try {
+            int count = 0;
+            for (Field field : fields) {
+                count = Math.max(count, field.getInt(null) + 1);
+            }
+            String[] names = new String[count];
+            for (Field field : fields) {
+                names[field.getInt(null)] = field.getName();
+            }
+            return names;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lex a source to the end and add it to the profile.
+     *
+     * @param buffer the source, which is lexed from its current position
+     * @param fileName the name of the source for error messages, may be null
+     * @throws TokenStreamException if the source can't be lexed
+     */
+    void lex(SourceBuffer buffer, String fileName)
+        throws TokenStreamException {
+        IDLLexer lexer = new IDLLexer(buffer);
+        if (fileName != null) {
+            lexer.setFilename(fileName);
+        }
+        lexer.setBulkSkip(false);
+        lexer.setProfile(this);
+        source = buffer;
+        long start = System.nanoTime();
+        try {
+            for (;;) {
+                Token token = lexer.nextToken();
+                if (token.getType() == Token.EOF_TYPE) {
+                    break;
+                }
+                endMatch(token.getType(), System.nanoTime());
+            }
+        } finally {
+            totalNanos += System.nanoTime() - start;
+            totalCharacters += buffer.length();
+            fileCount++;
+            source = null;
+            matchStart = -1;
+        }
+    }
+
+    /**
+     * Called by the lexer when it starts to match at the current position of
+     * the source.  If the previous match didn't give a token it was one of
+     * the types the lexer drops, told apart by its first characters.
+     */
+    void startMatch() {
+        long now = System.nanoTime();
+        if (matchStart >= 0) {
+            endMatch(getSkippedType(), now);
+        }
+        matchStart = source.position();
+        matchTime = now;
+    }
+
+    private void endMatch(int type, long now) {
+        counts[type]++;
+        characters[type] += source.position() - matchStart;
+        nanos[type] += now - matchTime;
+        matchStart = -1;
+    }
+
+    private int getSkippedType() {
+        char[] chars = source.array();
+        switch (chars[matchStart]) {
+        case '#':
+            return IDLTokenTypes.PREPROC_DIRECTIVE;
+        case '/':
+            return chars[matchStart + 1] == '/'
+                ? IDLTokenTypes.SL_COMMENT : IDLTokenTypes.ML_COMMENT;
+        default:
+            return IDLTokenTypes.WS;
+        }
+    }
+
+    /**
+     * @return the number of sources lexed
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * @return the number of characters in all sources
+     */
+    public long getTotalCharacters() {
+        return totalCharacters;
+    }
+
+    /**
+     * @return the nanoseconds spent lexing all sources
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @param type a token type of {@link IDLTokenTypes}
+     * @return the number of tokens of the type, for the dropped types the
+     *         number of matches, e.g. of single white space characters
+     */
+    public long getCount(int type) {
+        return counts[type];
+    }
+
+    /**
+     * @param type a token type of {@link IDLTokenTypes}
+     * @return the number of characters in tokens of the type
+     */
+    public long getCharacters(int type) {
+        return characters[type];
+    }
+
+    /**
+     * @param type a token type of {@link IDLTokenTypes}
+     * @return the nanoseconds spent on tokens of the type
+     */
+    public long getNanos(int type) {
+        return nanos[type];
+    }
+
+    /**
+     * @param types token types of {@link IDLTokenTypes}
+     * @return the part of the total time spent on tokens of the types,
+     *         between 0 and 1
+     */
+    public double getShare(int... types) {
+        if (totalNanos == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int type : types) {
+            sum += nanos[type];
+        }
+        return (double) sum / totalNanos;
+    }
+
+    /**
+     * Print a line for each token type that was seen, the slowest first, and
+     * the shares of the types the lexer drops.  Characters are counted as
+     * bytes for the MB/s.
+     *
+     * @param out the stream to print to
+     */
+    public void print(PrintStream out) {
+        List<Integer> types = new ArrayList<Integer>();
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (counts[type] > 0) {
+                types.add(type);
+            }
+        }
+        Collections.sort(types, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Long.valueOf(nanos[b]).compareTo(nanos[a]);
+            }
+        });
+        out.println(String.format("%d files, %d characters, %.1f ms",
+                fileCount, totalCharacters, totalNanos / 1e6));
+        out.println(String.format("  %-26s %10s %12s %9s %7s",
+                "type", "tokens", "tokens/s", "MB/s", "time"));
+        for (int type : types) {
+            double seconds = Math.max(nanos[type], 1) / NANOS_PER_SECOND;
+            out.println(String.format("  %-26s %10d %12.0f %9.1f %6.1f%%",
+                    NAMES[type], counts[type],
+                    counts[type] / seconds,
+                    characters[type] / BYTES_PER_MB / seconds,
+                    100 * getShare(type)));
+        }
+        out.println(String.format(
+                "  comments %.1f%%, preprocessor %.1f%%, white space %.1f%%",
+                100 * getShare(IDLTokenTypes.SL_COMMENT,
+                        IDLTokenTypes.ML_COMMENT),
+                100 * getShare(IDLTokenTypes.PREPROC_DIRECTIVE),
+                100 * getShare(IDLTokenTypes.WS)));
+    }
+}
@@ -0,0 +1,111 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * The token of the generated {@link IDLLexer}, which is like
+ * <code>antlr.CommonToken</code> but also carries the value of literals.
+ * <p>
+ * The text of string and character literals is kept as it is in the
+ * source, and its escape sequences are only decoded when {@link #getText()}
+ * is called, like the {@link SourceToken} of the {@link IDLScanner} does.
+ */
+final class LexerToken extends ValueToken {
+
+    private int line;
+
+    private int column;
+
+    private String text;
+
+    private boolean escaped;
+
+    /**
+     * Make this token into a new one, so that it can be recycled.
+     *
+     * @param type the token type
+     * @param theLine the line the token starts on
+     * @param theColumn the column the token starts at
+     */
+    void set(int type, int theLine, int theColumn) {
+        setType(type);
+        line = theLine;
+        column = theColumn;
+        text = null;
+        escaped = false;
+        clearValue();
+    }
+
+    /*
+     * @see org.argouml.uml.reveng.idl.ValueToken#setEscaped()
+     */
+    void setEscaped() {
+        escaped = true;
+    }
+
+    /*
+     * @see antlr.Token#getText()
+     */
+    public String getText() {
+        if (escaped && text != null) {
+            char[] chars = text.toCharArray();
+            text = Literals.decodeString(chars, 0, chars.length);
+            escaped = false;
+        }
+        return text;
+    }
+
+    /*
+     * @see antlr.Token#setText(java.lang.String)
+     */
+    public void setText(String t) {
+        text = t;
+    }
+
+    /*
+     * @see antlr.Token#getLine()
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /*
+     * @see antlr.Token#setLine(int)
+     */
+    public void setLine(int l) {
+        line = l;
+    }
+
+    /*
+     * @see antlr.Token#getColumn()
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /*
+     * @see antlr.Token#setColumn(int)
+     */
+    public void setColumn(int c) {
+        column = c;
+    }
+
+    /*
+     * Same format as antlr.CommonToken.
+     *
+     * @see antlr.Token#toString()
+     */
+    public String toString() {
+        return "[\"" + getText() + "\",<" + getType() + ">,line=" + line
+            + ",col=" + column + "]";
+    }
+}
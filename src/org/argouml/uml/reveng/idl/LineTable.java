@@ -0,0 +1,129 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.util.Arrays;
+
+/**
+ * The offsets of the newlines of a source file, from which the line and
+ * column of any offset are worked out when they are asked for.
+ * <p>
+ * The scanner only records where each newline is, so tokens need nothing
+ * but their offset to have an exact position.  The line is found by a
+ * binary search, and the column by counting from the start of the line,
+ * with tabs moving to the next tab stop like in ANTLR's CharScanner.
+ */
+final class LineTable {
+
+    /**
+     * The distance of the tab stops, the default of ANTLR's CharScanner.
+     */
+    static final int TAB_SIZE = 8;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final char[] chars;
+
+    private final int start;
+
+    private int[] newlines = new int[INITIAL_CAPACITY];
+
+    private int count;
+
+    /**
+     * @param source the characters of the source file
+     * @param theStart the index of the first character of the first line
+     */
+    LineTable(char[] source, int theStart) {
+        chars = source;
+        start = theStart;
+    }
+
+    /**
+     * @return the characters of the source file
+     */
+    char[] getChars() {
+        return chars;
+    }
+
+    /**
+     * Record a newline.  Newlines must be added in the order of their
+     * offsets.
+     *
+     * @param index the index of the newline character
+     */
+    void addNewline(int index) {
+        if (count == newlines.length) {
+            newlines = Arrays.copyOf(newlines, count * 2);
+        }
+        newlines[count++] = index;
+    }
+
+    /**
+     * Forget the newlines recorded after a line, e.g. those of a comment
+     * which turned out not to end.
+     *
+     * @param lineCount the number of lines to keep
+     */
+    void truncate(int lineCount) {
+        count = lineCount - 1;
+    }
+
+    /**
+     * @return the number of lines seen so far
+     */
+    int getLineCount() {
+        return count + 1;
+    }
+
+    /**
+     * @param index an index in the source
+     * @return the line of the character at the index, starting at 1.  A
+     *         newline belongs to the line it ends.
+     */
+    int getLine(int index) {
+        int found = Arrays.binarySearch(newlines, 0, count, index);
+        return (found < 0 ? -found - 1 : found) + 1;
+    }
+
+    /**
+     * @param line a line number, starting at 1
+     * @return the index of the first character of the line
+     */
+    int getLineStart(int line) {
+        return line == 1 ? start : newlines[line - 2] + 1;
+    }
+
+    /**
+     * @param index an index in the source
+     * @return the column of the character at the index, starting at 1
+     */
+    int getColumn(int index) {
+        int column = 1;
+        for (int p = getLineStart(getLine(index)); p < index; p++) {
+            if (chars[p] == '\t') {
+                column = ((column - 1) / TAB_SIZE + 1) * TAB_SIZE + 1;
+            } else {
+                column++;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * @param index an index in the source
+     * @return the line and column of the character at the index
+     */
+    SourcePosition getPosition(int index) {
+        return new SourcePosition(getLine(index), getColumn(index));
+    }
+}
@@ -0,0 +1,324 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Decodes the escape sequences and numeric values of literals straight
+ * from the characters of the source, without making Strings or boxed
+ * numbers on the way.
+ */
+final class Literals {
+
+    /**
+     * The value of an integer literal which doesn't fit a long, or of an
+     * octal one with an 8 or a 9 in it.  Integer literals have no sign, so
+     * no valid literal has this value.
+     */
+    static final long NO_VALUE = -1;
+
+    /*
+     * The powers of ten which are exact doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+        1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    /*
+     * The most significant decimal digits which always fit the 53 bits of
+     * a double's mantissa.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private Literals() {
+        // static methods only
+    }
+
+    /**
+     * Get the value of an ASCII digit.
+     *
+     * @param c the character
+     * @param radix 8, 10 or 16
+     * @return the value of the digit, or -1 if it is none in the radix
+     */
+    static int digit(char c, int radix) {
+        int value;
+        if (c >= '0' && c <= '9') {
+            value = c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            value = c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            value = c - 'A' + 10;
+        } else {
+            return -1;
+        }
+        return value < radix ? value : -1;
+    }
+
+    /**
+     * Decode the escape sequence at an index, like the ESC rule of the
+     * grammar.
+     *
+     * @param chars the source
+     * @param index the index of the backslash
+     * @param end the index after the last character of the source
+     * @return the value and the length of the escape sequence, to be taken
+     *         apart with {@link #escapeValue(int)} and
+     *         {@link #escapeLength(int)}, or -1 if there is none, in which
+     *         case a backslash is an ordinary character
+     */
+    static int decodeEscape(char[] chars, int index, int end) {
+        if (chars[index] != '\\' || index + 1 >= end) {
+            return -1;
+        }
+        char c = chars[index + 1];
+        switch (c) {
+        case 'n':
+            return escape('\n', 2);
+        case 't':
+            return escape('\t', 2);
+        case 'v':
+            return escape('\013', 2);
+        case 'b':
+            return escape('\b', 2);
+        case 'r':
+        case 'f':
+            // '\f' is decoded as '\r', as it always was
+            return escape('\r', 2);
+        case 'a':
+            return escape('\007', 2);
+        case '\\':
+        case '?':
+        case '\'':
+        case '"':
+            return escape(c, 2);
+        case 'x':
+            return decodeNumericEscape(chars, index + 2, end, 16, 2, 2);
+        case 'u':
+            return decodeNumericEscape(chars, index + 2, end, 16, 4, 2);
+        default:
+            return decodeNumericEscape(chars, index + 1, end, 8, 3, 1);
+        }
+    }
+
+    private static int decodeNumericEscape(char[] chars, int start, int end,
+            int radix, int maxDigits, int prefix) {
+        int value = 0;
+        int p = start;
+        int last = Math.min(end, start + maxDigits);
+        while (p < last) {
+            int digit = digit(chars[p], radix);
+            if (digit < 0) {
+                break;
+            }
+            value = value * radix + digit;
+            p++;
+        }
+        if (p == start) {
+            return -1;
+        }
+        return escape((char) value, prefix + p - start);
+    }
+
+    private static int escape(char value, int length) {
+        return length << 16 | value;
+    }
+
+    /**
+     * @param escape an escape sequence from {@link #decodeEscape}
+     * @return the character it stands for
+     */
+    static char escapeValue(int escape) {
+        return (char) escape;
+    }
+
+    /**
+     * @param escape an escape sequence from {@link #decodeEscape}
+     * @return the number of characters it takes in the source
+     */
+    static int escapeLength(int escape) {
+        return escape >>> 16;
+    }
+
+    /**
+     * Decode the contents of a string or character literal.
+     *
+     * @param chars the source
+     * @param start the index after the opening quote
+     * @param end the index of the closing quote
+     * @return the contents with all escape sequences decoded
+     */
+    static String decodeString(char[] chars, int start, int end) {
+        StringBuilder text = new StringBuilder(end - start);
+        int p = start;
+        while (p < end) {
+            int escape = chars[p] == '\\' ? decodeEscape(chars, p, end) : -1;
+            if (escape == -1) {
+                text.append(chars[p++]);
+            } else {
+                text.append(escapeValue(escape));
+                p += escapeLength(escape);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Get the value of the digits of an integer literal.
+     *
+     * @param chars the source
+     * @param start the index of the first digit, after any 0x
+     * @param end the index after the last digit
+     * @param radix 8, 10 or 16
+     * @return the value, or {@link #NO_VALUE} if it doesn't fit a long or
+     *         there is a digit which isn't one in the radix
+     */
+    static long parseInteger(char[] chars, int start, int end, int radix) {
+        long limit = Long.MAX_VALUE / radix;
+        long value = 0;
+        for (int p = start; p < end; p++) {
+            int digit = digit(chars[p], radix);
+            if (digit < 0 || value > limit) {
+                return NO_VALUE;
+            }
+            value = value * radix + digit;
+            if (value < 0) {
+                return NO_VALUE;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get the digits of a fixed point literal as one integer.
+     *
+     * @param chars the source
+     * @param start the index of the first character of the literal
+     * @param end the index of the d which ends it
+     * @return the value without the decimal point, or {@link #NO_VALUE} if
+     *         it doesn't fit a long
+     * @see #getScale(char[], int, int)
+     */
+    static long parseFixed(char[] chars, int start, int end) {
+        int point = indexOfPoint(chars, start, end);
+        if (point == -1) {
+            return parseInteger(chars, start, end, 10);
+        }
+        long whole = parseInteger(chars, start, point, 10);
+        long fraction = parseInteger(chars, point + 1, end, 10);
+        int scale = end - point - 1;
+        long unscaled = whole;
+        for (int i = 0; i < scale && unscaled != NO_VALUE; i++) {
+            unscaled = unscaled > Long.MAX_VALUE / 10
+                ? NO_VALUE : unscaled * 10;
+        }
+        if (unscaled == NO_VALUE || fraction == NO_VALUE
+                || unscaled > Long.MAX_VALUE - fraction) {
+            return NO_VALUE;
+        }
+        return unscaled + fraction;
+    }
+
+    /**
+     * @param chars the source
+     * @param start the index of the first character of a fixed point literal
+     * @param end the index of the d which ends it
+     * @return the number of digits after the decimal point
+     */
+    static int getScale(char[] chars, int start, int end) {
+        int point = indexOfPoint(chars, start, end);
+        return point == -1 ? 0 : end - point - 1;
+    }
+
+    private static int indexOfPoint(char[] chars, int start, int end) {
+        for (int p = start; p < end; p++) {
+            if (chars[p] == '.') {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the value of a floating point literal.
+     * <p>
+     * Literals with up to 15 significant digits and an exponent of at most
+     * 22 are converted exactly with a single multiplication or division,
+     * like in Clinger's fast path.  Only the others are passed to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param chars the source
+     * @param start the index of the first character of the literal
+     * @param end the index after its last digit
+     * @return the value
+     */
+    static double parseFloat(char[] chars, int start, int end) {
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        int p = start;
+        for (; p < end; p++) {
+            char c = chars[p];
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (mantissa == 0 && c == '0') {
+                if (fraction) {
+                    exponent--;
+                }
+                continue;
+            }
+            if (++digits > MAX_EXACT_DIGITS) {
+                return parseSlowly(chars, start, end);
+            }
+            mantissa = mantissa * 10 + c - '0';
+            if (fraction) {
+                exponent--;
+            }
+        }
+        if (p < end) {
+            // the exponent
+            p++;
+            boolean negative = chars[p] == '-';
+            if (negative || chars[p] == '+') {
+                p++;
+            }
+            int value = 0;
+            for (; p < end; p++) {
+                if (value > POWERS_OF_TEN.length * 2) {
+                    return parseSlowly(chars, start, end);
+                }
+                value = value * 10 + chars[p] - '0';
+            }
+            exponent += negative ? -value : value;
+        }
+        if (mantissa == 0) {
+            return 0;
+        }
+        if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            return mantissa * POWERS_OF_TEN[exponent];
+        }
+        if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            return mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return parseSlowly(chars, start, end);
+    }
+
+    private static double parseSlowly(char[] chars, int start, int end) {
+        return Double.parseDouble(new String(chars, start, end - start));
+    }
+}
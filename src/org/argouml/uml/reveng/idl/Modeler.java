@@ -68,12 +68,18 @@ import org.argouml.uml.reveng.ImportInterface;
  * @author Marcus Andersson
  * @author Tom Morris
  */
-class Modeler {
+class Modeler implements DeclarationHandler {
 
     private static final Logger LOG =
         Logger.getLogger(Modeler.class.getName());
 
     private static final String DEFAULT_PACKAGE = "default";
+
+    /**
+     * The tagged value holding the line and column of the declaration of
+     * an imported element, as in "12:5".
+     */
+    static final String SOURCE_POSITION_TAG = "src_position";
     private static final List<String> EMPTY_STRING_LIST = 
         Collections.emptyList();
 
@@ -236,6 +242,16 @@ class Modeler {
         Model.getCoreHelper().setNamespace(parseState.getComponent(), model);
     }
 
+    /**
+     * Get the component of the source file being imported.
+     *
+     * @return the component, or null before {@link #addComponent()} has
+     *         been called
+     */
+    public Object getComponent() {
+        return parseState.getComponent();
+    }
+
     /**
      * Called from the parser when a package clause is found.
      *
@@ -430,14 +446,17 @@ class Modeler {
      *        interfaces. Can be fully qualified or just a
      *        simple interface name.
      * @param javadoc The javadoc comment. null or "" if no comment available.
+     * @param position Where the class is declared, or null.
      */
     public void addClass(String name,
                          short modifiers,
                          String superclassName,
                          List<String> interfaces,
-                         String javadoc) {
+                         String javadoc,
+                         SourcePosition position) {
         addClass(name, modifiers, EMPTY_STRING_LIST, superclassName,
                 interfaces, javadoc, false);
+        addPositionTag(parseState.getClassifier(), position);
     }
 
     /**
@@ -908,15 +927,20 @@ class Modeler {
      *            A List of parameter declarations containing types and names.
      * @param javadoc
      *            The javadoc comment. null or "" if no comment available.
+     * @param position
+     *            Where the operation is declared, or null.
      * @return The operation.
      */
     public Object addOperation (short modifiers,
                                 String returnType,
                                 String name,
                                 List<ParameterDeclaration> parameters,
-                                String javadoc) {
-        return addOperation(modifiers, EMPTY_STRING_LIST, returnType, name,
-                parameters, javadoc, false);
+                                String javadoc,
+                                SourcePosition position) {
+        Object mOperation = addOperation(modifiers, EMPTY_STRING_LIST,
+                returnType, name, parameters, javadoc, false);
+        addPositionTag(mOperation, position);
+        return mOperation;
     }
     
     /**
@@ -1710,78 +1734,30 @@ class Modeler {
      * if no java docs)
      */
     private void addDocumentationTag(Object modelElement, String sJavaDocs) {
-	if ((sJavaDocs != null)
-	    && (sJavaDocs.trim().length() >= 5)) {
-	    StringBuffer sbPureDocs = new StringBuffer(80);
-	    String sCurrentTagData = null;
-	    int nStartPos = 3; // skip the leading /**
-	    boolean fHadAsterisk = true;
-
-	    while (nStartPos < sJavaDocs.length()) {
-		switch (sJavaDocs.charAt (nStartPos)) {
-		case '*':
-		    fHadAsterisk = true;
-		    nStartPos++;
-		    break;
-		case ' ':   // all white space, hope I didn't miss any ;-)
-		case '\t':
-		    // ignore white space before the first asterisk
-		    if (!fHadAsterisk) {
-			nStartPos++;
-			break;
-		    }
-		default:
-		    // normal comment text or standard tag
-		    // check ahead for tag
-		    int j = nStartPos;
-		    while ((j < sJavaDocs.length())
-			   && ((sJavaDocs.charAt (j) == ' ')
-			       || (sJavaDocs.charAt (j) == '\t'))) {
-			j++;
-		    }
-		    if (j < sJavaDocs.length()) {
-		        int nTemp = sJavaDocs.indexOf ('\n', nStartPos);
-		        if (nTemp == -1) {
-		            nTemp = sJavaDocs.length();
-		        } else {
-		            nTemp++;
-		        }
-                        sbPureDocs.append(sJavaDocs.substring(nStartPos,
-                                                              nTemp));
-		        nStartPos = nTemp;
-		    }
-		    fHadAsterisk = false;
-		}
-	    }
-            sJavaDocs = sbPureDocs.toString();
-
-            /*
-             * After this, we have the documentation text, but there's still a
-             * trailing '/' left, either at the end of the actual comment text
-             * or at the end of the last tag.
-             */
-            sJavaDocs = removeTrailingSlash(sJavaDocs);
-
+        if (sJavaDocs == null) {
+            return;
+        }
+        String text = DocComments.getText(sJavaDocs);
+        if (text != null) {
 	    // Now store documentation text in a tagged value
 	    Model.getExtensionMechanismsHelper().addTaggedValue(
                     modelElement,
                     Model.getExtensionMechanismsFactory().buildTaggedValue(
-                            Argo.DOCUMENTATION_TAG, sJavaDocs));
+                            Argo.DOCUMENTATION_TAG, text));
         }
     }
 
-
-    /*
-     * Remove a trailing slash, including the entire line if it's the only thing
-     * on the line.
+    /**
+     * Record where an element is declared, so that it can be found in the
+     * source again.
+     *
+     * @param modelElement the imported element
+     * @param position the position of its declaration, or null
      */
-    private String removeTrailingSlash(String s) {
-        if (s.endsWith("\n/")) {
-            return s.substring(0, s.length() - 2);
-        } else  if (s.endsWith("/")) {
-            return s.substring(0, s.length() - 1);
-        } else {
-            return s;
+    private void addPositionTag(Object modelElement, SourcePosition position) {
+        if (position != null) {
+            Model.getCoreHelper().setTaggedValue(modelElement,
+                    SOURCE_POSITION_TAG, position.toString());
         }
     }
 
@@ -0,0 +1,42 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An IDL module and the declarations it contains.
+ */
+final class ModuleDeclaration extends Declaration {
+
+    private final List<Declaration> definitions;
+
+    /**
+     * @param name the simple name of the module
+     * @param position where the module starts
+     * @param definitions the declarations of the module in source order
+     */
+    ModuleDeclaration(String name, SourcePosition position,
+            List<Declaration> definitions) {
+        super(name, position);
+        this.definitions = Collections.unmodifiableList(
+                new ArrayList<Declaration>(definitions));
+    }
+
+    /**
+     * @return the declarations of the module in source order
+     */
+    public List<Declaration> getDefinitions() {
+        return definitions;
+    }
+}
@@ -0,0 +1,77 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import antlr.ASTFactory;
+import antlr.ASTPair;
+import antlr.Token;
+import antlr.collections.AST;
+
+/**
+ * An AST factory which makes no nodes, so that the parser builds no syntax
+ * tree.
+ * <p>
+ * The grammar is generated with <code>buildAST=true</code> and every rule
+ * passes its tokens to the factory, but the import builds its model from
+ * the {@link Specification} the actions make and never looks at the tree.
+ * The generated code already copes with null nodes, as ANTLR's own factory
+ * returns them for tokens marked with <code>!</code>.
+ */
+final class NoASTFactory extends ASTFactory {
+
+    /**
+     * The factory, which has no state.
+     */
+    static final NoASTFactory INSTANCE = new NoASTFactory();
+
+    private NoASTFactory() {
+    }
+
+    public AST create() {
+        return null;
+    }
+
+    public AST create(int type) {
+        return null;
+    }
+
+    public AST create(int type, String text) {
+        return null;
+    }
+
+    public AST create(int type, String text, String className) {
+        return null;
+    }
+
+    public AST create(AST tr) {
+        return null;
+    }
+
+    public AST create(Token tok) {
+        return null;
+    }
+
+    public AST create(Token tok, String className) {
+        return null;
+    }
+
+    public AST create(String className) {
+        return null;
+    }
+
+    public void addASTChild(ASTPair currentAST, AST child) {
+        // nothing to add to
+    }
+
+    public void makeASTRoot(ASTPair currentAST, AST root) {
+        // nothing to add to
+    }
+}
@@ -0,0 +1,77 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An IDL operation.
+ */
+final class OperationDeclaration extends Declaration {
+
+    private final boolean oneway;
+    private final String returnType;
+    private final List<ParameterDeclaration> parameters;
+    private final List<String> raises;
+
+    /**
+     * @param name the name of the operation
+     * @param position where the operation starts
+     * @param oneway true for a oneway operation
+     * @param returnType the return type as written in the source
+     * @param parameters the parameters in source order
+     * @param raises the scoped names of the exceptions raised
+     * @param documentation the documentation comment, or null
+     */
+    OperationDeclaration(String name, SourcePosition position,
+            boolean oneway, String returnType,
+            List<ParameterDeclaration> parameters, List<String> raises,
+            String documentation) {
+        super(name, position, documentation);
+        this.oneway = oneway;
+        this.returnType = returnType;
+        this.parameters = Collections.unmodifiableList(
+                new ArrayList<ParameterDeclaration>(parameters));
+        this.raises = Collections.unmodifiableList(
+                new ArrayList<String>(raises));
+    }
+
+    /**
+     * @return true for a oneway operation
+     */
+    public boolean isOneway() {
+        return oneway;
+    }
+
+    /**
+     * @return the return type as written in the source, e.g. "void" or
+     *         "unsigned long"
+     */
+    public String getReturnType() {
+        return returnType;
+    }
+
+    /**
+     * @return the parameters in source order
+     */
+    public List<ParameterDeclaration> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return the scoped names of the exceptions the operation raises
+     */
+    public List<String> getRaises() {
+        return raises;
+    }
+}
@@ -46,6 +46,21 @@ package org.argouml.uml.reveng.idl;
  */
 class ParameterDeclaration {
 
+    /**
+     * Modifier bit for an IDL "in" parameter.
+     */
+    public static final short MOD_IN = 0x0100;
+
+    /**
+     * Modifier bit for an IDL "out" parameter.
+     */
+    public static final short MOD_OUT = 0x0200;
+
+    /**
+     * Modifier bits for an IDL "inout" parameter.
+     */
+    public static final short MOD_INOUT = MOD_IN | MOD_OUT;
+
     private final short modifiers;
     private final String type;
     private final String name;
@@ -56,6 +71,7 @@ class ParameterDeclaration {
      * @param modifiers a short bitfield containing a bit set for each modifier.
      *                See the ACC_ definitions in the java.g grammar file or the
      *                Java spec to find the meaning of each individual bit.
+     *                For IDL, the MOD_ definitions above give the direction.
      * @param type the type of the parameter, possibly followed by array
      *                notation brackets
      * @param name the name of the parameter
@@ -0,0 +1,370 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An on-disk cache of parse results, keyed by a hash of the source bytes,
+ * the source encoding and the grammar version.
+ * <p>
+ * Each entry holds the declarations of a {@link Specification} in its own
+ * file, written by {@link DeclarationFormat} rather than Java serialization,
+ * so that a file planted in the cache directory can't get arbitrary classes
+ * instantiated.  Entries
+ * are written to a temporary file and renamed into place, so a reader never
+ * sees a partly written entry, and several processes may share one cache
+ * directory.  When the cache grows beyond its size limit the least recently
+ * used entries are removed; a hit touches the modification time of its
+ * entry.  The size is only counted again when the limit seems to be
+ * exceeded, so entries added by other processes may let the directory grow
+ * somewhat beyond the limit in between.
+ * <p>
+ * All methods may be called from several threads at once.
+ */
+final class ParseCache {
+
+    private static final Logger LOG =
+        Logger.getLogger(ParseCache.class.getName());
+
+    /**
+     * Version of the entry format.  Increment it when the written form of
+     * the declarations changes incompatibly.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The first bytes of every entry.
+     */
+    private static final int MAGIC = 0x49444c43;
+
+    private static final String ENTRY_SUFFIX = ".idlc";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String LOCK_FILE = "cache.lock";
+
+    /**
+     * Temporary files older than this are left over from a crashed process.
+     */
+    private static final long STALE_TEMP_AGE = 60 * 60 * 1000L;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File directory;
+
+    private final long sizeLimit;
+
+    /**
+     * Estimated size of the entries, or -1 if it hasn't been counted yet.
+     */
+    private long size = -1;
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param directory the cache directory, which is created if needed
+     * @param sizeLimit the number of bytes the entries may take up
+     */
+    ParseCache(File directory, long sizeLimit) {
+        this.directory = directory;
+        this.sizeLimit = sizeLimit;
+    }
+
+    /**
+     * Compute the key for a source file.  The key changes whenever the
+     * declarations parsed from the file could change, including when
+     * another parser parses it, so that the results of the parsers can be
+     * compared.
+     *
+     * @param source the contents of the file, which are not consumed
+     * @param encoding the encoding used to decode the file, or null for the
+     *                 platform default, which is part of the key by its
+     *                 name so that processes with other defaults can share
+     *                 the cache
+     * @param parser the name of the parser, e.g. its class name
+     * @return the cache key
+     * @throws UnsupportedEncodingException if there is no such encoding
+     */
+    static String getKey(ByteBuffer source, String encoding, String parser)
+        throws UnsupportedEncodingException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to provide SHA-1
+            throw new IllegalStateException(e);
+        }
+        String version = FORMAT_VERSION + ":" + IDLParser.GRAMMAR_VERSION
+            + ":" + SourceBuffer.getCharset(encoding).name() + ":" + parser
+            + ":";
+        try {
+            digest.update(version.getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(source.duplicate());
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param hash the bytes of a hash
+     * @return the hash as a string of hex digits
+     */
+    static String toHex(byte[] hash) {
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Look up the declarations of a file.
+     *
+     * @param key the key of the file contents
+     * @param fileName the name of the file the declarations are for
+     * @return the cached declarations, or null if there are none
+     */
+    Specification get(String key, String fileName) {
+        File entry = new File(directory, key + ENTRY_SUFFIX);
+        if (!entry.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        List<Declaration> definitions = null;
+        try {
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(entry)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Not a cache entry");
+                }
+                definitions = DeclarationFormat.read(in);
+                if (in.read() != -1) {
+                    throw new IOException("Trailing bytes");
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // removed by another process, not readable any more, or corrupt
+            LOG.log(Level.FINE, "Unable to read cache entry " + entry, e);
+        }
+        if (definitions == null) {
+            entry.delete();
+            misses.incrementAndGet();
+            return null;
+        }
+        entry.setLastModified(System.currentTimeMillis());
+        hits.incrementAndGet();
+        return new Specification(fileName, definitions, key);
+    }
+
+    /**
+     * Store the declarations of a file.  Failures are logged and otherwise
+     * ignored.
+     *
+     * @param key the key of the file contents
+     * @param specification the declarations of the file
+     */
+    void put(String key, Specification specification) {
+        File entry = new File(directory, key + ENTRY_SUFFIX);
+        File temp = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()
+                    && !directory.isDirectory()) {
+                throw new IOException("Can't create " + directory);
+            }
+            temp = File.createTempFile("idl", TEMP_SUFFIX, directory);
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                DeclarationFormat.write(out, specification.getDefinitions(),
+                        true);
+            } finally {
+                out.close();
+            }
+            long length = temp.length();
+            if (!temp.renameTo(entry)) {
+                // Some platforms don't replace existing files, but then
+                // another thread or process has stored the same entry.
+                temp.delete();
+                return;
+            }
+            temp = null;
+            added(length);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Unable to write cache entry " + entry, e);
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+    }
+
+    /*
+     * Account for a new entry and evict old entries when the limit is
+     * exceeded.
+     */
+    private synchronized void added(long length) {
+        if (size < 0) {
+            size = countSize();
+        } else {
+            size += length;
+        }
+        if (size > sizeLimit) {
+            evict();
+        }
+    }
+
+    /*
+     * Add up the size of all entries.
+     */
+    private long countSize() {
+        long total = 0;
+        for (File entry : listEntries()) {
+            total += entry.length();
+        }
+        return total;
+    }
+
+    /*
+     * Remove the least recently used entries until the cache is down to
+     * three quarters of its limit.  Only one process evicts at a time; if
+     * another one holds the lock it will do the job.
+     */
+    private void evict() {
+        RandomAccessFile lockFile = null;
+        FileLock lock = null;
+        try {
+            lockFile = new RandomAccessFile(
+                    new File(directory, LOCK_FILE), "rw");
+            lock = lockFile.getChannel().tryLock();
+            if (lock == null) {
+                return;
+            }
+            File[] entries = listEntries();
+            final long[] modified = new long[entries.length];
+            Integer[] order = new Integer[entries.length];
+            long total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                modified[i] = entries[i].lastModified();
+                order[i] = Integer.valueOf(i);
+                total += entries[i].length();
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                public int compare(Integer a, Integer b) {
+                    long diff = modified[a.intValue()] - modified[b.intValue()];
+                    return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+                }
+            });
+            long target = sizeLimit / 4 * 3;
+            int removed = 0;
+            for (int i = 0; i < order.length && total > target; i++) {
+                File entry = entries[order[i].intValue()];
+                long length = entry.length();
+                if (entry.delete()) {
+                    total -= length;
+                    removed++;
+                }
+            }
+            size = total;
+            removeStaleTempFiles();
+            LOG.log(Level.FINE, "Removed {0} entries from the parse cache",
+                    removed);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Unable to clean up " + directory, e);
+        } catch (OverlappingFileLockException e) {
+            // already being evicted by this process
+        } finally {
+            try {
+                if (lock != null) {
+                    lock.release();
+                }
+                if (lockFile != null) {
+                    lockFile.close();
+                }
+            } catch (IOException e) {
+                // nothing left to do with it
+            }
+        }
+    }
+
+    /*
+     * Remove temporary files left behind by processes which died while
+     * writing an entry.
+     */
+    private void removeStaleTempFiles() {
+        final long limit = System.currentTimeMillis() - STALE_TEMP_AGE;
+        File[] temps = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.getName().endsWith(TEMP_SUFFIX)
+                    && file.lastModified() < limit;
+            }
+        });
+        if (temps != null) {
+            for (File temp : temps) {
+                temp.delete();
+            }
+        }
+    }
+
+    private File[] listEntries() {
+        File[] entries = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.getName().endsWith(ENTRY_SUFFIX);
+            }
+        });
+        return entries == null ? new File[0] : entries;
+    }
+
+    /**
+     * @return the number of successful lookups
+     */
+    int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which found nothing
+     */
+    int getMisses() {
+        return misses.get();
+    }
+}
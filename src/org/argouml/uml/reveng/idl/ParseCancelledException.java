@@ -0,0 +1,28 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Thrown by a {@link ParseListener} to abort a parse.  Nothing of a
+ * cancelled file is applied to the model.
+ */
+final class ParseCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Construct an exception for a cancelled parse.
+     */
+    ParseCancelledException() {
+        super("Parse cancelled");
+    }
+}
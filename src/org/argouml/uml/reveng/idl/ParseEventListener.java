@@ -0,0 +1,79 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Receives the declarations and errors an {@link IDLParser} comes across,
+ * e.g. to trace a parse, collect metrics or feed an editor, without changing
+ * the grammar.  The parser only makes these calls if a listener is set.
+ * <p>
+ * The declarations are those the import builds the model from: modules,
+ * interfaces with a body, and their operations.  The listener is called on
+ * the thread running the parser, so when an import parses several files at
+ * once it must be thread safe.  Unlike a {@link ParseListener} it must not
+ * abort the parse.
+ */
+public interface ParseEventListener {
+
+    /**
+     * The kind of a module.
+     */
+    String MODULE = "module";
+
+    /**
+     * The kind of an interface.
+     */
+    String INTERFACE = "interface";
+
+    /**
+     * The kind of an operation.
+     */
+    String OPERATION = "operation";
+
+    /**
+     * Called when a declaration starts, as soon as its name is known.  The
+     * declarations entered in between belong to it.  An operation is only
+     * reported once it is complete, so it is exited right away.
+     *
+     * @param kind {@link #MODULE}, {@link #INTERFACE} or {@link #OPERATION}
+     * @param name the simple name
+     * @param line the line of its first token, starting at 1
+     * @param column the column of its first token, starting at 1
+     */
+    void declarationEntered(String kind, String name, int line, int column);
+
+    /**
+     * Called when the declaration entered last is complete, or has been
+     * given up because of a syntax error.
+     *
+     * @param kind the kind it was entered with
+     * @param name the name it was entered with
+     * @param tokens the number of tokens from its first one to its last
+     */
+    void declarationExited(String kind, String name, int tokens);
+
+    /**
+     * Called for each syntax error, whether the parser recovers from it or
+     * stops at it.
+     *
+     * @param diagnostic the position and description of the error
+     */
+    void syntaxError(Diagnostic diagnostic);
+
+    /**
+     * Called when the parser has reached the end of a file.
+     *
+     * @param fileName the name of the file, may be null
+     * @param tokens the number of tokens of the file
+     */
+    void fileParsed(String fileName, int tokens);
+}
@@ -0,0 +1,28 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Receives events from an {@link IDLParser} while it parses.
+ * <p>
+ * The parser doesn't touch the model, and neither may a listener; it is
+ * called on the thread running the parser.
+ */
+interface ParseListener {
+
+    /**
+     * Called each time a complete definition has been parsed, at the top
+     * level or inside a module.  This is a safe point to abort the parse
+     * by throwing a {@link ParseCancelledException}.
+     */
+    void definitionParsed();
+}
@@ -0,0 +1,137 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * Skips white space, comments and preprocessor directives a run at a time
+ * in the character array of a source.
+ * <p>
+ * The lexer rules WS, SL_COMMENT, ML_COMMENT and PREPROC_DIRECTIVE look at
+ * one character at a time, check up to four characters of lookahead on
+ * each, append it to the token text and count its column, only to throw
+ * the token away.  Here each run is skipped by a loop which compares every
+ * character once and only records the offsets of the newlines in a
+ * {@link LineTable}.
+ * <p>
+ * Only what the lexer rules would skip without an error is skipped: a
+ * comment without its end, or a line comment or directive without a
+ * newline at the end of the file, is left for the lexer to report or
+ * handle.  A comment ending in several stars is skipped, though the
+ * generated lexer would reject it.
+ */
+final class Skipper {
+
+    private Skipper() {
+        // static methods only
+    }
+
+    /**
+     * Skip white space, comments and preprocessor directives.
+     *
+     * @param chars the source
+     * @param start the index to start at
+     * @param end the index after the last character of the source
+     * @param lines receives the offsets of the newlines skipped
+     * @param docComments receives the documentation comments skipped, may
+     *                    be null
+     * @return the index of the first character which wasn't skipped
+     */
+    static int skip(char[] chars, int start, int end, LineTable lines,
+            DocComments docComments) {
+        int p = start;
+        while (p < end) {
+            char c = chars[p];
+            if (c == ' ' || c == '\t' || c == '\r') {
+                p++;
+            } else if (c == '\n') {
+                lines.addNewline(p);
+                p++;
+            } else if (c == '#') {
+                int newline = indexOfNewline(chars, p + 1, end);
+                if (newline == -1) {
+                    return p;
+                }
+                lines.addNewline(newline);
+                p = newline + 1;
+            } else if (c == '/' && p + 1 < end && chars[p + 1] == '/') {
+                int newline = indexOfNewline(chars, p + 2, end);
+                if (newline == -1) {
+                    return p;
+                }
+                lines.addNewline(newline);
+                p = newline + 1;
+            } else if (c == '/' && p + 1 < end && chars[p + 1] == '*') {
+                int lineCount = lines.getLineCount();
+                int star = indexOfCommentEnd(chars, p + 2, end, lines);
+                if (star == -1) {
+                    lines.truncate(lineCount);
+                    return p;
+                }
+                if (docComments != null
+                        && DocComments.isDocComment(chars, p, star + 2)) {
+                    docComments.add(new String(chars, p, star + 2 - p));
+                }
+                p = star + 2;
+            } else {
+                return p;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * @param chars the source
+     * @param start the index to start at
+     * @param end the index after the last character of the source
+     * @return the index of the next newline, or -1 if there is none
+     */
+    static int indexOfNewline(char[] chars, int start, int end) {
+        for (int p = start; p < end; p++) {
+            if (chars[p] == '\n') {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the star and slash which end a multi line comment, recording the
+     * newlines before them.
+     *
+     * @param chars the source
+     * @param start the index after the slash and star which start the
+     *              comment
+     * @param end the index after the last character of the source
+     * @param lines receives the offsets of the newlines of the comment
+     * @return the index of the star, or -1 if the comment doesn't end
+     */
+    static int indexOfCommentEnd(char[] chars, int start, int end,
+            LineTable lines) {
+        int last = end - 1;
+        for (int p = start; p < last; p++) {
+            char c = chars[p];
+            // Most of the text of a comment is above '*' and is passed
+            // over with this one comparison.
+            if (c > '*') {
+                continue;
+            }
+            if (c == '*') {
+                if (chars[p + 1] == '/') {
+                    return p;
+                }
+            } else if (c == '\n') {
+                lines.addNewline(p);
+            }
+        }
+        return -1;
+    }
+}
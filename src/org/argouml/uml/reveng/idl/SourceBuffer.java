@@ -0,0 +1,289 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+
+import antlr.CharScanner;
+import antlr.InputBuffer;
+
+/**
+ * An input buffer for the lexer which holds the whole decoded source file
+ * in one char array.
+ * <p>
+ * ANTLR's own {@link antlr.CharBuffer} pulls one char at a time out of a
+ * Reader through a small queue.  Here the file is read and decoded in one
+ * go and the lookahead is a plain array access.
+ */
+final class SourceBuffer extends InputBuffer {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final char[] chars;
+    private final int start;
+    private final int end;
+    private int pos;
+
+    /**
+     * @param chars the characters of the source
+     * @param start the index of the first character, a leading byte order
+     *              mark is skipped
+     * @param end the index after the last character
+     */
+    SourceBuffer(char[] chars, int start, int end) {
+        int first = start;
+        if (first < end && chars[first] == BYTE_ORDER_MARK) {
+            first++;
+        }
+        this.chars = chars;
+        this.start = first;
+        this.end = end;
+        this.pos = first;
+    }
+
+    /**
+     * @param source the source text
+     */
+    SourceBuffer(String source) {
+        this(source.toCharArray(), 0, source.length());
+    }
+
+    /**
+     * Read and decode a whole file.
+     *
+     * @param file the file to read
+     * @param encoding the name of the character set of the file, or null
+     *                 for the platform default
+     * @return the buffer holding the decoded file
+     * @throws IOException if the file can't be read or the encoding is not
+     *                     supported
+     */
+    static SourceBuffer read(File file, String encoding) throws IOException {
+        return decode(readBytes(file), encoding);
+    }
+
+    /**
+     * Read the raw contents of a file.  The file is read into the heap
+     * rather than mapped: a mapped file stays open until the buffer is
+     * garbage collected, and on Windows it can't be changed or deleted
+     * meanwhile.
+     *
+     * @param file the file to read
+     * @return the bytes of the file, positioned at the start
+     * @throws IOException if the file can't be read
+     */
+    static ByteBuffer readBytes(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large: " + file);
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) {
+                    break;
+                }
+            }
+            bytes.flip();
+            return bytes;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Read and decode everything that is left in a stream.  The stream is
+     * not closed.
+     *
+     * @param in the stream to read
+     * @param encoding the name of the character set of the stream, or null
+     *                 for the platform default
+     * @return the buffer holding the decoded stream
+     * @throws IOException if the stream can't be read or the encoding is
+     *                     not supported
+     */
+    static SourceBuffer read(InputStream in, String encoding)
+        throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        byte[] block = new byte[8192];
+        int n;
+        while ((n = in.read(block)) > 0) {
+            out.write(block, 0, n);
+        }
+        return decode(ByteBuffer.wrap(out.toByteArray()), encoding);
+    }
+
+    /**
+     * Decode bytes the same way an InputStreamReader would, replacing
+     * malformed input instead of failing.
+     *
+     * @param bytes the bytes to decode, which are consumed
+     * @param encoding the name of the character set of the bytes, or null
+     *                 for the platform default
+     * @return the buffer holding the decoded characters
+     * @throws IOException if the encoding is not supported
+     */
+    static SourceBuffer decode(ByteBuffer bytes, String encoding)
+        throws IOException {
+        CharBuffer decoded = getCharset(encoding).newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(bytes);
+        int start = decoded.arrayOffset() + decoded.position();
+        return new SourceBuffer(decoded.array(), start,
+                start + decoded.remaining());
+    }
+
+    /**
+     * Look up a character set by name.
+     *
+     * @param encoding the name of the character set, or null or empty for
+     *                 the platform default
+     * @return the character set
+     * @throws UnsupportedEncodingException if there is no such character set
+     */
+    static Charset getCharset(String encoding)
+        throws UnsupportedEncodingException {
+        if (encoding == null || encoding.trim().length() == 0) {
+            return Charset.defaultCharset();
+        }
+        try {
+            return Charset.forName(encoding.trim());
+        } catch (IllegalCharsetNameException e) {
+            throw new UnsupportedEncodingException(encoding);
+        } catch (UnsupportedCharsetException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+    }
+
+    /**
+     * @return the number of characters in the buffer
+     */
+    int length() {
+        return end - start;
+    }
+
+    /**
+     * @return the number of characters consumed so far
+     */
+    int consumed() {
+        return Math.min(pos, end) - start;
+    }
+
+    /**
+     * @return the array holding the characters, which is shared and not
+     *         copied
+     */
+    char[] array() {
+        return chars;
+    }
+
+    /**
+     * @return the array index of the next character
+     */
+    int position() {
+        return pos;
+    }
+
+    /**
+     * Move to another character, for scanners which work on the array
+     * directly.
+     *
+     * @param position the array index of the next character
+     */
+    void position(int position) {
+        pos = position;
+    }
+
+    /**
+     * @return the array index after the last character
+     */
+    int limit() {
+        return end;
+    }
+
+    /*
+     * @see antlr.InputBuffer#LA(int)
+     */
+    public char LA(int i) {
+        int index = pos + i - 1;
+        return index < end ? chars[index] : CharScanner.EOF_CHAR;
+    }
+
+    /*
+     * @see antlr.InputBuffer#consume()
+     */
+    public void consume() {
+        pos++;
+    }
+
+    /*
+     * Everything is read up front.
+     *
+     * @see antlr.InputBuffer#fill(int)
+     */
+    public void fill(int amount) {
+        // nothing to do
+    }
+
+    /*
+     * @see antlr.InputBuffer#mark()
+     */
+    public int mark() {
+        nMarkers++;
+        return pos;
+    }
+
+    /*
+     * @see antlr.InputBuffer#rewind(int)
+     */
+    public void rewind(int mark) {
+        nMarkers--;
+        pos = mark;
+    }
+
+    /*
+     * @see antlr.InputBuffer#commit()
+     */
+    public void commit() {
+        nMarkers--;
+    }
+
+    /*
+     * @see antlr.InputBuffer#getLAChars()
+     */
+    public String getLAChars() {
+        return new String(chars, pos, end - pos);
+    }
+
+    /*
+     * @see antlr.InputBuffer#reset()
+     */
+    public void reset() {
+        nMarkers = 0;
+        pos = start;
+    }
+}
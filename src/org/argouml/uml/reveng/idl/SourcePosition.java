@@ -0,0 +1,62 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+/**
+ * The position of a declaration in its IDL source file.
+ */
+final class SourcePosition {
+
+    private final int line;
+    private final int column;
+
+    /**
+     * @param line the line number, starting at 1
+     * @param column the column number, starting at 1
+     */
+    SourcePosition(int line, int column) {
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return the line number, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the column number, starting at 1
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SourcePosition)) {
+            return false;
+        }
+        SourcePosition other = (SourcePosition) o;
+        return line == other.line && column == other.column;
+    }
+
+    @Override
+    public int hashCode() {
+        return line * 31 + column;
+    }
+
+    @Override
+    public String toString() {
+        return line + ":" + column;
+    }
+}
@@ -0,0 +1,199 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * A token which refers to its text in the source buffer instead of holding
+ * a copy of it.  Its line and column are looked up in the {@link LineTable}
+ * of the source from its offset.
+ * <p>
+ * The text is only made into a String when {@link #getText()} is called,
+ * e.g. by a grammar action, and is then kept.  Tokens whose text is not
+ * the literal source, such as keywords, are given their text up front.
+ * The escape sequences of string and character literals are decoded when
+ * the text is made.
+ * <p>
+ * Numeric and character literals also carry their value, which the lexer
+ * decodes while scanning them.
+ */
+final class SourceToken extends ValueToken {
+
+    private LineTable lines;
+
+    private char[] chars;
+
+    private int start;
+
+    private int offset;
+
+    private int length;
+
+    private SymbolTable symbols;
+
+    private String text;
+
+    private boolean escaped;
+
+    /**
+     * Create a token whose text is known.
+     *
+     * @param type the token type
+     * @param theText the text, may be null
+     * @param theLines the lines of the source
+     * @param theStart the index of the token in the source buffer
+     * @param theLength the number of characters of the token in the source
+     */
+    SourceToken(int type, String theText, LineTable theLines, int theStart,
+            int theLength) {
+        set(type, theText, theLines, theStart, theLength);
+    }
+
+    /**
+     * Create a token whose text is the source it was scanned from.
+     *
+     * @param type the token type
+     * @param theLines the lines of the source
+     * @param theStart the index of the token in the source buffer
+     * @param theOffset the index of the text in the source buffer, after
+     *                  any quotes or prefix
+     * @param theLength the number of characters of the text
+     * @param table the pool to take the text from, or null
+     */
+    SourceToken(int type, LineTable theLines, int theStart, int theOffset,
+            int theLength, SymbolTable table) {
+        set(type, theLines, theStart, theOffset, theLength, table);
+    }
+
+    /**
+     * Make this token into another one whose text is known, so that it can
+     * be recycled.
+     *
+     * @param type the token type
+     * @param theText the text, may be null
+     * @param theLines the lines of the source
+     * @param theStart the index of the token in the source buffer
+     * @param theLength the number of characters of the token in the source
+     */
+    void set(int type, String theText, LineTable theLines, int theStart,
+            int theLength) {
+        set(type, theLines, null, theStart, theStart, theLength, null);
+        text = theText;
+    }
+
+    /**
+     * Make this token into another one whose text is the source it was
+     * scanned from, so that it can be recycled.
+     *
+     * @param type the token type
+     * @param theLines the lines of the source
+     * @param theStart the index of the token in the source buffer
+     * @param theOffset the index of the text in the source buffer, after
+     *                  any quotes or prefix
+     * @param theLength the number of characters of the text
+     * @param table the pool to take the text from, or null
+     */
+    void set(int type, LineTable theLines, int theStart, int theOffset,
+            int theLength, SymbolTable table) {
+        set(type, theLines, theLines.getChars(), theStart, theOffset,
+                theLength, table);
+    }
+
+    private void set(int type, LineTable theLines, char[] source,
+            int theStart, int theOffset, int theLength, SymbolTable table) {
+        setType(type);
+        lines = theLines;
+        chars = source;
+        start = theStart;
+        offset = theOffset;
+        length = theLength;
+        symbols = table;
+        text = null;
+        escaped = false;
+        clearValue();
+    }
+
+    /**
+     * @return the index in the source buffer of the token
+     */
+    int getStart() {
+        return start;
+    }
+
+    /**
+     * @return the index in the source buffer of the text, if it is taken
+     *         from there, otherwise of the whole token
+     */
+    int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the number of characters at the offset
+     */
+    int getLength() {
+        return length;
+    }
+
+    /*
+     * @see org.argouml.uml.reveng.idl.ValueToken#setEscaped()
+     */
+    void setEscaped() {
+        escaped = true;
+    }
+
+    /*
+     * @see antlr.Token#getText()
+     */
+    public String getText() {
+        if (text == null && chars != null) {
+            if (escaped) {
+                text = Literals.decodeString(chars, offset, offset + length);
+            } else if (symbols == null) {
+                text = new String(chars, offset, length);
+            } else {
+                text = symbols.intern(chars, offset, length);
+            }
+        }
+        return text;
+    }
+
+    /*
+     * @see antlr.Token#setText(java.lang.String)
+     */
+    public void setText(String t) {
+        text = t;
+    }
+
+    /*
+     * @see antlr.Token#getLine()
+     */
+    public int getLine() {
+        return lines.getLine(start);
+    }
+
+    /*
+     * @see antlr.Token#getColumn()
+     */
+    public int getColumn() {
+        return lines.getColumn(start);
+    }
+
+    /*
+     * Same format as antlr.CommonToken.
+     *
+     * @see antlr.Token#toString()
+     */
+    public String toString() {
+        return "[\"" + getText() + "\",<" + getType() + ">,line="
+            + getLine() + ",col=" + getColumn() + "]";
+    }
+}
@@ -0,0 +1,176 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watches source roots for files which are added, changed or deleted.
+ * <p>
+ * The roots are polled by comparing the modification time and size of
+ * each file, since this code must still run on Java 6, which has no
+ * <code>java.nio.file.WatchService</code>.  Changes are debounced: they
+ * are only reported once no further change has been seen for a quiet
+ * period, so that an editor saving a file in several steps, or a checkout
+ * touching many files, leads to a single re-import.
+ */
+final class SourceWatcher {
+
+    private final List<File> roots;
+
+    private final FileFilter filter;
+
+    private final long pollInterval;
+
+    private final long quietPeriod;
+
+    /**
+     * The modification time and size of each file seen, by file.
+     */
+    private Map<File, long[]> snapshot;
+
+    /**
+     * The files deleted up to the last changes reported.
+     */
+    private List<File> deleted = new ArrayList<File>();
+
+    /**
+     * @param theRoots the files and directories to watch, directories are
+     *                 searched recursively
+     * @param theFilter selects the files in the directories
+     * @param thePollInterval the time between two scans in milliseconds
+     * @param theQuietPeriod how long no change must be seen before changes
+     *                       are reported, in milliseconds
+     */
+    SourceWatcher(List<File> theRoots, FileFilter theFilter,
+            long thePollInterval, long theQuietPeriod) {
+        roots = new ArrayList<File>(theRoots);
+        filter = theFilter;
+        pollInterval = thePollInterval;
+        quietPeriod = theQuietPeriod;
+        snapshot = scan();
+    }
+
+    /**
+     * Wait until files have been added, changed or deleted and have then
+     * been left alone for the quiet period.  The deleted files are then
+     * available from {@link #getDeleted()}.
+     *
+     * @return the added and changed files which still exist, empty if files
+     *         were only deleted
+     * @throws InterruptedException if the thread is interrupted
+     */
+    List<File> awaitChanges() throws InterruptedException {
+        Map<File, long[]> start = snapshot;
+        long lastChange = 0;
+        while (true) {
+            Thread.sleep(pollInterval);
+            Map<File, long[]> current = scan();
+            long now = System.currentTimeMillis();
+            if (!getChanges(snapshot, current).isEmpty()
+                    || !getDeletions(snapshot, current).isEmpty()) {
+                lastChange = now;
+            }
+            snapshot = current;
+            if (lastChange != 0 && now - lastChange >= quietPeriod) {
+                List<File> changes = getChanges(start, current);
+                List<File> gone = getDeletions(start, current);
+                if (!changes.isEmpty() || !gone.isEmpty()) {
+                    deleted = gone;
+                    return changes;
+                }
+                // changes which were undone
+                start = current;
+                lastChange = 0;
+            }
+        }
+    }
+
+    /*
+     * Get the files which are new or different in the current snapshot.
+     */
+    private static List<File> getChanges(Map<File, long[]> before,
+            Map<File, long[]> current) {
+        List<File> changes = new ArrayList<File>();
+        for (Map.Entry<File, long[]> entry : current.entrySet()) {
+            long[] old = before.get(entry.getKey());
+            long[] now = entry.getValue();
+            if (old == null || old[0] != now[0] || old[1] != now[1]) {
+                changes.add(entry.getKey());
+            }
+        }
+        Collections.sort(changes);
+        return changes;
+    }
+
+    /**
+     * @return the files which were deleted before
+     *         {@link #awaitChanges()} returned last
+     */
+    List<File> getDeleted() {
+        return deleted;
+    }
+
+    /*
+     * Get the files which are gone in the current snapshot.
+     */
+    private static List<File> getDeletions(Map<File, long[]> before,
+            Map<File, long[]> current) {
+        List<File> deletions = new ArrayList<File>();
+        for (File file : before.keySet()) {
+            if (!current.containsKey(file)) {
+                deletions.add(file);
+            }
+        }
+        Collections.sort(deletions);
+        return deletions;
+    }
+
+    /*
+     * Record the modification time and size of all watched files.
+     */
+    private Map<File, long[]> scan() {
+        Map<File, long[]> files = new HashMap<File, long[]>();
+        for (File root : roots) {
+            if (root.isFile()) {
+                // named explicitly, so not filtered
+                record(root, files);
+            } else {
+                scan(root, files);
+            }
+        }
+        return files;
+    }
+
+    private void scan(File file, Map<File, long[]> files) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    scan(child, files);
+                }
+            }
+        } else if (file.isFile() && filter.accept(file)) {
+            record(file, files);
+        }
+    }
+
+    private static void record(File file, Map<File, long[]> files) {
+        files.put(file, new long[] {file.lastModified(), file.length()});
+    }
+}
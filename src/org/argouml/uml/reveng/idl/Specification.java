@@ -0,0 +1,100 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The declarations of one IDL source file, as produced by
+ * {@link IDLParser#specification()}.
+ */
+final class Specification {
+
+    private final String fileName;
+    private final List<Declaration> definitions;
+    private final String fingerprint;
+
+    /**
+     * The syntax errors the parser recovered from.  A file with errors isn't
+     * cached, so they aren't stored with the declarations.
+     */
+    private final List<Diagnostic> diagnostics;
+
+    /**
+     * @param fileName the name of the parsed file, may be null
+     * @param definitions the top level declarations in source order
+     */
+    Specification(String fileName, List<Declaration> definitions) {
+        this(fileName, definitions, null);
+    }
+
+    /**
+     * @param fileName the name of the parsed file, may be null
+     * @param definitions the top level declarations in source order
+     * @param fingerprint the hash of the parsed source, may be null
+     */
+    Specification(String fileName, List<Declaration> definitions,
+            String fingerprint) {
+        this(fileName, definitions, fingerprint,
+                Collections.<Diagnostic>emptyList());
+    }
+
+    /**
+     * @param fileName the name of the parsed file, may be null
+     * @param definitions the top level declarations in source order
+     * @param fingerprint the hash of the parsed source, may be null
+     * @param diagnostics the syntax errors the parser recovered from
+     */
+    Specification(String fileName, List<Declaration> definitions,
+            String fingerprint, List<Diagnostic> diagnostics) {
+        this.fileName = fileName;
+        this.definitions = Collections.unmodifiableList(
+                new ArrayList<Declaration>(definitions));
+        this.fingerprint = fingerprint;
+        this.diagnostics = diagnostics.isEmpty()
+            ? Collections.<Diagnostic>emptyList()
+            : Collections.unmodifiableList(
+                    new ArrayList<Diagnostic>(diagnostics));
+    }
+
+    /**
+     * @return the name of the parsed file, may be null
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return the top level declarations in source order
+     */
+    public List<Declaration> getDefinitions() {
+        return definitions;
+    }
+
+    /**
+     * @return the hash of the source the declarations were parsed from, as
+     *         computed by {@link ParseCache#getKey(java.nio.ByteBuffer,
+     *         String, String)}, or null if it isn't known
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return the syntax errors the parser recovered from, in source order;
+     *         the declarations they were found in are incomplete or missing
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+}
@@ -0,0 +1,162 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+/**
+ * A pool of identifiers shared by all files of an import, so that every
+ * occurrence of a name is the same String instance.
+ * <p>
+ * The lexer looks names up straight from its character buffer, so an
+ * identifier which has been seen before costs no allocation at all, and
+ * the declarations keep one instance per distinct name instead of one per
+ * occurrence.  Lookups from several parser threads are spread over
+ * separately locked segments.
+ */
+final class SymbolTable {
+
+    private static final int SEGMENT_BITS = 4;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    /**
+     * Create an empty table.
+     */
+    SymbolTable() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Get the canonical instance of a name held in a character buffer.
+     *
+     * @param chars the buffer
+     * @param offset the index of the first character of the name
+     * @param length the number of characters
+     * @return the name, created only if it is new to the table
+     */
+    String intern(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return getSegment(hash).intern(chars, offset, length, null, hash);
+    }
+
+    /**
+     * Get the canonical instance of a name.
+     *
+     * @param name the name, may be null
+     * @return the instance held by the table, or null
+     */
+    String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        int hash = name.hashCode();
+        return getSegment(hash).intern(null, 0, name.length(), name, hash);
+    }
+
+    /**
+     * @return the number of distinct names in the table
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment getSegment(int hash) {
+        return segments[mix(hash) & (segments.length - 1)];
+    }
+
+    /*
+     * Spread the bits of a String hash code, which tend to differ in the
+     * low bits only for short names.
+     */
+    private static int mix(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * An open addressing hash table of names, with its own lock.
+     */
+    private static final class Segment {
+
+        private String[] symbols = new String[INITIAL_CAPACITY];
+
+        private int[] hashes = new int[INITIAL_CAPACITY];
+
+        private int count;
+
+        synchronized String intern(char[] chars, int offset, int length,
+                String name, int hash) {
+            int mask = symbols.length - 1;
+            int i = (mix(hash) >>> SEGMENT_BITS) & mask;
+            for (String symbol = symbols[i]; symbol != null;
+                    symbol = symbols[i]) {
+                if (hashes[i] == hash && symbol.length() == length
+                        && (name == null
+                            ? matches(symbol, chars, offset)
+                            : symbol.equals(name))) {
+                    return symbol;
+                }
+                i = (i + 1) & mask;
+            }
+            String symbol = name == null
+                ? new String(chars, offset, length) : name;
+            symbols[i] = symbol;
+            hashes[i] = hash;
+            if (++count * 2 > symbols.length) {
+                grow();
+            }
+            return symbol;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        private static boolean matches(String symbol, char[] chars,
+                int offset) {
+            for (int i = 0; i < symbol.length(); i++) {
+                if (symbol.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            String[] oldSymbols = symbols;
+            int[] oldHashes = hashes;
+            symbols = new String[oldSymbols.length * 2];
+            hashes = new int[oldSymbols.length * 2];
+            int mask = symbols.length - 1;
+            for (int j = 0; j < oldSymbols.length; j++) {
+                if (oldSymbols[j] != null) {
+                    int i = (mix(oldHashes[j]) >>> SEGMENT_BITS) & mask;
+                    while (symbols[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    symbols[i] = oldSymbols[j];
+                    hashes[i] = oldHashes[j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+
+/**
+ * The lookahead of the parser, kept in a ring of tokens which are handed
+ * back to the lexer to be made into new ones once the parser is done with
+ * them.
+ * <p>
+ * ANTLR's TokenBuffer keeps a queue of new tokens, one for each token of
+ * the source, which all become garbage right away.  Here the ring holds
+ * the tokens from the one consumed last to the last one looked at, which
+ * is one more than the lookahead of the parser.  A token is recycled when
+ * a new one is needed in its slot.
+ * <p>
+ * While the parser guesses with a syntactic predicate it may look any
+ * number of tokens ahead and then rewind, so nothing after the first mark
+ * is recycled and the ring grows if it has to.
+ * <p>
+ * This only works as long as the grammar doesn't keep a token after it
+ * is consumed, except in the action right after it.  A grammar action may
+ * use a token label, or pass <code>LT(1)</code> on, but must take what it
+ * needs from the token right away.  <code>TestTokenRing</code> checks
+ * this by parsing with the smallest ring possible.
+ */
+final class TokenRing {
+
+    private final TokenStream input;
+
+    /*
+     * The input if it can recycle tokens.
+     */
+    private final IDLScanner scanner;
+
+    private final IDLLexer lexer;
+
+    private Token[] tokens;
+
+    private int mask;
+
+    /*
+     * The number of tokens consumed, so the index of LT(1) if it is taken
+     * modulo the size of the ring.
+     */
+    private int head;
+
+    /*
+     * The number of tokens taken from the lexer.
+     */
+    private int tail;
+
+    private int markers;
+
+    private int firstMark;
+
+    /**
+     * @param theInput the lexer, which recycles tokens if it is an
+     *                 {@link IDLScanner} or {@link IDLLexer}
+     * @param lookahead the number of tokens of lookahead of the parser
+     */
+    TokenRing(TokenStream theInput, int lookahead) {
+        input = theInput;
+        scanner = theInput instanceof IDLScanner
+            ? (IDLScanner) theInput : null;
+        lexer = theInput instanceof IDLLexer ? (IDLLexer) theInput : null;
+        int capacity = 1;
+        while (capacity < lookahead + 1) {
+            capacity *= 2;
+        }
+        tokens = new Token[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the number of tokens the ring holds, which only grows while
+     *         the parser guesses
+     */
+    int getCapacity() {
+        return tokens.length;
+    }
+
+    /**
+     * @return the number of tokens consumed so far
+     */
+    int getConsumed() {
+        return head;
+    }
+
+    /**
+     * @param i the position in the lookahead, starting at 1
+     * @return the type of the token
+     * @throws TokenStreamException if the lexer fails
+     */
+    int LA(int i) throws TokenStreamException {
+        return LT(i).getType();
+    }
+
+    /**
+     * @param i the position in the lookahead, starting at 1
+     * @return the token
+     * @throws TokenStreamException if the lexer fails
+     */
+    Token LT(int i) throws TokenStreamException {
+        while (tail - head < i) {
+            fill();
+        }
+        return tokens[(head + i - 1) & mask];
+    }
+
+    /**
+     * Move on to the next token.
+     */
+    void consume() {
+        head++;
+    }
+
+    /**
+     * @return the position to rewind to
+     */
+    int mark() {
+        if (markers++ == 0) {
+            firstMark = head;
+        }
+        return head;
+    }
+
+    /**
+     * Go back to a position, after guessing.
+     *
+     * @param position a position returned by {@link #mark()}
+     */
+    void rewind(int position) {
+        markers--;
+        head = position;
+    }
+
+    /*
+     * Take the next token from the lexer.
+     */
+    private void fill() throws TokenStreamException {
+        // the token consumed last may still be used by an action
+        int kept = (markers > 0 ? Math.min(firstMark, head) : head) - 1;
+        if (tail >= tokens.length && tail - tokens.length >= kept) {
+            grow();
+        }
+        int slot = tail & mask;
+        Token old = tail < tokens.length ? null : tokens[slot];
+        Token token;
+        if (scanner != null) {
+            token = scanner.nextToken(old);
+        } else if (lexer != null) {
+            token = lexer.nextToken(old);
+        } else {
+            token = input.nextToken();
+        }
+        tokens[slot] = token;
+        tail++;
+    }
+
+    private void grow() {
+        Token[] grown = new Token[tokens.length * 2];
+        for (int i = Math.max(0, tail - tokens.length); i < tail; i++) {
+            grown[i & (grown.length - 1)] = tokens[i & mask];
+        }
+        tokens = grown;
+        mask = grown.length - 1;
+    }
+}
@@ -0,0 +1,92 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.math.BigDecimal;
+
+import antlr.Token;
+
+/**
+ * A token which carries the value of a numeric or character literal, as
+ * decoded by the lexer, so that the parser needn't convert its text again.
+ * Both the {@link IDLScanner} and the generated {@link IDLLexer} make such
+ * tokens.
+ */
+abstract class ValueToken extends Token {
+
+    private long value = Literals.NO_VALUE;
+
+    private int scale;
+
+    /**
+     * Forget the value, so that the token can be recycled.
+     */
+    void clearValue() {
+        value = Literals.NO_VALUE;
+        scale = 0;
+    }
+
+    /**
+     * @param theValue the value of an integer or character literal, or
+     *                 {@link Literals#NO_VALUE}
+     */
+    void setIntegerValue(long theValue) {
+        value = theValue;
+    }
+
+    /**
+     * @return the value of an integer or character literal, or
+     *         {@link Literals#NO_VALUE} if it doesn't fit a long
+     */
+    long getIntegerValue() {
+        return value;
+    }
+
+    /**
+     * @param theValue the value of a floating point literal
+     */
+    void setFloatValue(double theValue) {
+        value = Double.doubleToRawLongBits(theValue);
+    }
+
+    /**
+     * @return the value of a floating point literal
+     */
+    double getFloatValue() {
+        return Double.longBitsToDouble(value);
+    }
+
+    /**
+     * @param unscaled the digits of a fixed point literal as one integer,
+     *                 or {@link Literals#NO_VALUE}
+     * @param theScale the number of digits after the decimal point
+     */
+    void setFixedValue(long unscaled, int theScale) {
+        value = unscaled;
+        scale = theScale;
+    }
+
+    /**
+     * @return the value of a fixed point literal, or null if it has too many
+     *         digits
+     */
+    BigDecimal getFixedValue() {
+        return value == Literals.NO_VALUE
+            ? null : BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * Mark the text as having escape sequences, which are decoded when the
+     * text is asked for.
+     */
+    abstract void setEscaped();
+}
@@ -0,0 +1,176 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What an importer keeps between the imports of a watch session, in which
+ * the same files are imported again and again as they change.
+ * <p>
+ * The identifiers of all imports share one {@link SymbolTable}, and the
+ * declarations of every imported file are kept, so that a file whose
+ * contents are those of a file seen before, e.g. after an edit was undone,
+ * isn't parsed again, and so that it is known which files declare a
+ * classifier when a file is deleted.  The ANTLR 4 parser keeps its DFA in
+ * the generated class anyway.
+ * <p>
+ * All methods may be called from several threads at once.
+ */
+final class WatchSession {
+
+    private final SymbolTable symbols = new SymbolTable();
+
+    /**
+     * The declarations of each file imported in the session.
+     */
+    private final Map<File, Specification> specifications =
+        new HashMap<File, Specification>();
+
+    /**
+     * The declarations of files without errors, by the key of their
+     * contents.
+     */
+    private final Map<String, Specification> byKey =
+        new HashMap<String, Specification>();
+
+    /**
+     * The names of files which must be applied again although they didn't
+     * change.
+     */
+    private final Set<String> outdated = new HashSet<String>();
+
+    /**
+     * @return the identifiers shared by all imports of the session
+     */
+    SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Look up the declarations of contents seen before.
+     *
+     * @param key the key of the contents
+     * @param fileName the name of the file the declarations are for
+     * @return the declarations, or null if the contents are new or had
+     *         errors
+     */
+    synchronized Specification get(String key, String fileName) {
+        Specification specification = byKey.get(key);
+        if (specification == null) {
+            return null;
+        }
+        return new Specification(fileName, specification.getDefinitions(),
+                key);
+    }
+
+    /**
+     * Remember the declarations a file was imported with.
+     *
+     * @param file the file
+     * @param specification its declarations
+     */
+    synchronized void put(File file, Specification specification) {
+        Specification old = specifications.put(file, specification);
+        if (old != null) {
+            forgetKey(old.getFingerprint());
+        }
+        if (specification.getFingerprint() != null
+                && specification.getDiagnostics().isEmpty()) {
+            byKey.put(specification.getFingerprint(), specification);
+        }
+    }
+
+    /**
+     * Forget a file which has been deleted.
+     *
+     * @param file the file
+     */
+    synchronized void remove(File file) {
+        Specification old = specifications.remove(file);
+        if (old != null) {
+            forgetKey(old.getFingerprint());
+        }
+    }
+
+    /*
+     * Drop the declarations of some contents once no file has them any more.
+     */
+    private void forgetKey(String key) {
+        if (key == null) {
+            return;
+        }
+        for (Specification specification : specifications.values()) {
+            if (key.equals(specification.getFingerprint())) {
+                return;
+            }
+        }
+        byKey.remove(key);
+    }
+
+    /**
+     * Find the files of the session which declare any of some classifiers.
+     *
+     * @param names the qualified names of the classifiers, as
+     *              {@link IncrementalImport#getDeclaredNames(Specification)}
+     *              gives them
+     * @return the files declaring them
+     */
+    synchronized List<File> getDeclaringFiles(Set<String> names) {
+        List<File> files = new ArrayList<File>();
+        for (Map.Entry<File, Specification> entry
+                : specifications.entrySet()) {
+            for (String name
+                    : IncrementalImport.getDeclaredNames(entry.getValue())) {
+                if (names.contains(name)) {
+                    files.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @return the files imported in the session which still exist
+     */
+    synchronized List<File> getFiles() {
+        return new ArrayList<File>(specifications.keySet());
+    }
+
+    /**
+     * Note that a file must be applied again by the next import, although
+     * its contents didn't change.
+     *
+     * @param fileName the name of the file, as its component is named
+     */
+    synchronized void setOutdated(String fileName) {
+        outdated.add(fileName);
+    }
+
+    /**
+     * Take the names of the files which must be applied again.
+     *
+     * @return the names, which are forgotten
+     */
+    synchronized Set<String> takeOutdated() {
+        Set<String> names = new HashSet<String>(outdated);
+        outdated.clear();
+        return names;
+    }
+}
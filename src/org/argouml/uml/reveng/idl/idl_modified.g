@@ -3,10 +3,16 @@ package org.argouml.uml.reveng.idl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Stack;
 
-import org.argouml.uml.reveng.idl.Modeler;
+import org.argouml.uml.reveng.idl.DeclarationBuilder;
+import org.argouml.uml.reveng.idl.DeclarationHandler;
+import org.argouml.uml.reveng.idl.Diagnostic;
 import org.argouml.uml.reveng.idl.ParameterDeclaration;
-import org.argouml.uml.util.namespace.StringNamespace;
+import org.argouml.uml.reveng.idl.ParseEventListener;
+import org.argouml.uml.reveng.idl.ParseListener;
+import org.argouml.uml.reveng.idl.SourcePosition;
+import org.argouml.uml.reveng.idl.Specification;
 }
 
 /**
@@ -34,122 +40,527 @@ import org.argouml.uml.util.namespace.StringNamespace;
  *  modifications for ArgoUML:
  *  Markus Klink, mkl@tigris.org
  *
+ * The parser doesn't touch the UML model.  The specification rule returns
+ * a tree of declarations which a DeclarationApplier replays into a Modeler.
+ *
  * TODO: Only module, interface, and operation are support currently for
  *       reverse engineering.  Support for other elements needs to be added.
- *       Specific things missing include: attributes, structs, parameter types, 
- *       operation return types, enums, exceptions, ...
+ *       Specific things missing include: attributes, structs, enums,
+ *       exceptions, ...
  */
 class IDLParser extends Parser;
 options {
 	exportVocab=IDL;
 	buildAST=true;
 	k=4;
+	// errors are recovered from at definitions and exports only
+	defaultErrorHandler=false;
 }
 {
 
 
     public static final short MOD_PUBLIC    = 0x0001;
     public static final short MOD_READONLY    = 0x0010;
+
+    /**
+     * Version of the declarations produced by this grammar.  Increment it
+     * whenever a grammar change alters the declaration tree of a file, so
+     * that cached parse results are no longer used.
+     */
+    public static final int GRAMMAR_VERSION = 3;
+
+    /**
+     * The lookahead of the parser, which must be the same as its k option.
+     */
+    static final int LOOKAHEAD = 4;
     
-    // The modeler to create the meta model objects.
-    private Modeler _modeler;
+    // Collects the declarations of the specification being parsed.
+    private DeclarationBuilder builder;
     
     private List<ParameterDeclaration> paramStack = 
             new ArrayList<ParameterDeclaration>();
-    
+
+    // The type matched by param_type_spec last.
+    private String paramType;
+
+    // The exceptions listed by raises_expr last.
+    private List<String> raisedExceptions;
+
+    // Told about the progress of the parse, may be null.
+    private ParseListener listener;
+
+    // Receives the declarations while parsing when streaming, may be null.
+    private DeclarationApplier streamingApplier;
+
+    // The identifiers shared with the other files of an import, may be null.
+    private SymbolTable symbols;
+
+    // The documentation comments kept by the lexer, may be null.
+    private DocComments docComments;
+
+    // Holds the lookahead instead of the TokenBuffer, may be null.
+    private TokenRing tokenRing;
+
+    // Receives the syntax errors recovered from, null to stop at the first.
+    private List<Diagnostic> diagnostics;
+
+    // The number of braces open, only counted when recovering from errors.
+    private int braceDepth;
+
+    // Told about the declarations and errors, may be null.
+    private ParseEventListener events;
+
+    // The declarations the events listener is in, innermost last.
+    private final Stack<Entered> entered = new Stack<Entered>();
+
+    // The error the events listener was told about last, when throwing it.
+    private RecognitionException reported;
+
+    // The number of tokens consumed without a TokenRing.
+    private int consumed;
+
     /**
-     * This is a List of Strings.
+     * A declaration the events listener has been told about and not yet
+     * left.
      */
-    private List<String> superclassStack = new ArrayList<String>();
-    
-    private StringNamespace sns = new StringNamespace(".");
+    private static final class Entered {
+        private final String kind;
+        private final String name;
+        private final int first;
+
+        Entered(String theKind, String theName, int theFirst) {
+            kind = theKind;
+            name = theName;
+            first = theFirst;
+        }
+    }
 
     /**
-     * Return the modeler of this parser.
+     * Set the listener to be told about the progress of the parse.
      *
-     * @return The modeler of this parser.
+     * @param theListener The listener, or null for none.
      */
-    public final Modeler getModeler() {
-        return _modeler;
+    void setParseListener(ParseListener theListener) {
+        listener = theListener;
     }
 
     /**
-     * Set the modeler of this parser.
+     * Stream the declarations to an applier as soon as they are complete,
+     * instead of collecting them into the returned specification, which
+     * stays empty.  The syntax tree of each definition is dropped once it
+     * has been parsed, so memory use depends on the largest definition
+     * rather than on the size of the file.
      *
-     * @param modeler The new modeler of this parser.
+     * @param applier The applier, which must already have been begun, or
+     *                null to collect the declarations.
      */
-    public final void setModeler( Modeler modeler) {
-        _modeler = modeler;
+    void setStreamingApplier(DeclarationApplier applier) {
+        streamingApplier = applier;
     }
-    
-	/**
-	 * Get the current superclass name.
-	 */
-    private String getSuperclassName() {
-        if (superclassStack.isEmpty()) {
-            return null;
+
+    /**
+     * Share the names kept in the declarations with the other files of an
+     * import.
+     *
+     * @param table The pool of identifiers, or null.
+     */
+    void setSymbolTable(SymbolTable table) {
+        symbols = table;
+    }
+
+    /**
+     * Take the documentation comments from the lexer, which must have been
+     * given the same instance.
+     *
+     * @param comments The comments, or null to ignore them.
+     */
+    void setDocComments(DocComments comments) {
+        docComments = comments;
+    }
+
+    /**
+     * Keep the lookahead in a ring of recycled tokens instead of ANTLR's
+     * TokenBuffer, which needs a new token for each one of the source.
+     * The grammar actions must not keep a token, see {@link TokenRing}.
+     *
+     * @param ring The ring, which must take its tokens from the lexer of
+     *             this parser, or null for the TokenBuffer.
+     */
+    void setTokenRing(TokenRing ring) {
+        tokenRing = ring;
+    }
+
+    /**
+     * Recover from syntax errors instead of stopping at the first one.  A
+     * definition or export with an error is skipped up to its closing
+     * semicolon, or to the brace closing the scope around it, and the
+     * error is added to the diagnostics.  The declarations parsed before
+     * the error are kept, e.g. the operations of an interface in front of
+     * the one with the error.  Errors of the lexer still stop the parse.
+     *
+     * @param theDiagnostics The list to add the errors to, or null to throw
+     *                       the first one.
+     */
+    void setDiagnostics(List<Diagnostic> theDiagnostics) {
+        diagnostics = theDiagnostics;
+    }
+
+    /**
+     * Set the listener to be told about the declarations and errors.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setParseEventListener(ParseEventListener listener) {
+        events = listener;
+    }
+
+    public int LA(int i) throws TokenStreamException {
+        return tokenRing == null ? super.LA(i) : tokenRing.LA(i);
+    }
+
+    public Token LT(int i) throws TokenStreamException {
+        return tokenRing == null ? super.LT(i) : tokenRing.LT(i);
+    }
+
+    public void consume() throws TokenStreamException {
+        if (diagnostics != null) {
+            int type = LA(1);
+            if (type == LCURLY) {
+                braceDepth++;
+            } else if (type == RCURLY) {
+                braceDepth--;
+            }
+        }
+        if (tokenRing == null) {
+            super.consume();
+            consumed++;
+        } else {
+            tokenRing.consume();
+        }
+    }
+
+    public int mark() {
+        return tokenRing == null ? super.mark() : tokenRing.mark();
+    }
+
+    public void rewind(int pos) {
+        if (tokenRing == null) {
+            super.rewind(pos);
+        } else {
+            tokenRing.rewind(pos);
+        }
+    }
+
+    /**
+     * Record a syntax error in a definition or export and skip the rest of
+     * it: up to the next semicolon outside of the braces it opened, which
+     * is skipped too, or to the brace closing the scope around it.  Without
+     * diagnostics the error is thrown on.
+     *
+     * @param ex The error.
+     * @param braces The number of braces open when the definition started.
+     */
+    private void recover(RecognitionException ex, int braces)
+        throws RecognitionException, TokenStreamException {
+        if (diagnostics == null) {
+            if (events != null && ex != reported) {
+                // once, not again by each enclosing rule
+                reported = ex;
+                events.syntaxError(Diagnostic.create(getFilename(), ex));
+            }
+            throw ex;
+        }
+        error(Diagnostic.create(getFilename(), ex));
+        while (LA(1) != Token.EOF_TYPE) {
+            if (braceDepth <= braces) {
+                if (LA(1) == RCURLY) {
+                    return;
+                }
+                if (LA(1) == SEMI) {
+                    consume();
+                    return;
+                }
+            }
+            consume();
+        }
+    }
+
+    /**
+     * Check whether there is more to parse where a loop over definitions or
+     * exports stopped, which it does at anything they can't start with.
+     * Stray semicolons, and closing braces at the top level, are skipped
+     * with a single diagnostic; anything else is left to the definition or
+     * export rule to fail on and recover from.
+     *
+     * @param topLevel True after the top level definitions.
+     * @return True if another definition or export should be parsed.
+     */
+    private boolean resync(boolean topLevel) throws TokenStreamException {
+        if (diagnostics == null) {
+            return false;
+        }
+        if (LA(1) == SEMI || topLevel && LA(1) == RCURLY) {
+            // one diagnostic for all of them
+            Token token = LT(1);
+            error(new Diagnostic(getFilename(), token.getLine(),
+                    token.getColumn(),
+                    "unexpected token: " + token.getText()));
+            do {
+                consume();
+            } while (LA(1) == SEMI || topLevel && LA(1) == RCURLY);
+        }
+        return LA(1) != RCURLY && LA(1) != Token.EOF_TYPE;
+    }
+
+    /**
+     * Record a syntax error which is recovered from.
+     */
+    private void error(Diagnostic diagnostic) {
+        diagnostics.add(diagnostic);
+        if (events != null) {
+            events.syntaxError(diagnostic);
+        }
+    }
+
+    /**
+     * @return The number of tokens consumed so far.
+     */
+    private int tokenIndex() {
+        return tokenRing == null ? consumed : tokenRing.getConsumed();
+    }
+
+    /**
+     * Tell the events listener that a declaration starts.
+     *
+     * @param first The index of its first token.
+     */
+    private void enter(String kind, String name, SourcePosition pos,
+            int first) {
+        if (events != null) {
+            events.declarationEntered(kind, name, pos.getLine(),
+                    pos.getColumn());
+            entered.push(new Entered(kind, name, first));
+        }
+    }
+
+    /**
+     * Tell the events listener that the declaration entered last is done.
+     */
+    private void exit() {
+        if (events != null) {
+            Entered declaration = entered.pop();
+            events.declarationExited(declaration.kind, declaration.name,
+                    tokenIndex() - declaration.first);
+        }
+    }
+
+    /**
+     * Leave the declarations a definition left entered when the parser gave
+     * up on it.
+     *
+     * @param depth The number of declarations entered before it.
+     */
+    private void exitTo(int depth) {
+        while (entered.size() > depth) {
+            exit();
         }
-        return (String) superclassStack.get(superclassStack.size() - 1);
+    }
+
+    /**
+     * Tell the events listener that the end of the file has been reached.
+     */
+    private void fileParsed() {
+        if (events != null) {
+            events.fileParsed(getFilename(), tokenIndex());
+        }
+    }
+
+    /**
+     * Get the documentation comment in front of a token, usually the
+     * first token of a declaration.
+     */
+    private String documentation(Token token) {
+        return docComments == null ? null : docComments.get(token);
+    }
+
+    /**
+     * Drop the syntax tree built so far by a rule when streaming.
+     */
+    private void release(ASTPair currentAST) {
+        if (streamingApplier != null) {
+            currentAST.root = null;
+            currentAST.child = null;
+        }
+    }
+
+    /**
+     * Parse a complete specification and pass its declarations to a
+     * handler, e.g. a Modeler.
+     *
+     * @param handler The handler to receive the declarations.
+     * @throws RecognitionException if the input isn't valid IDL
+     * @throws TokenStreamException if the input can't be read
+     */
+    public final void specification(DeclarationHandler handler)
+        throws RecognitionException, TokenStreamException {
+        new DeclarationApplier(handler).apply(specification());
+    }
+
+    /**
+     * Choose whether to build the syntax tree, which nothing in the import
+     * uses.  The parser builds it by default, as generated.
+     *
+     * @param build False to build no tree, so that getAST() returns null.
+     */
+    void setBuildAST(boolean build) {
+        if (build) {
+            setASTFactory(new ASTFactory(getTokenTypeToASTClassMap()));
+        } else {
+            setASTFactory(NoASTFactory.INSTANCE);
+        }
+    }
+
+    /**
+     * Decide on the next one or two tokens whether a definition starts with
+     * a keyword, optionally after "abstract" or another modifier.  This
+     * replaces syntactic predicates, which made the parser guess with mark
+     * and rewind at every definition.
+     */
+    private boolean isDefinition(int keyword, int modifier)
+        throws TokenStreamException {
+        int type = LA(1);
+        if (type == LITERAL_abstract || type == modifier) {
+            type = LA(2);
+        }
+        return type == keyword;
+    }
+
+    /**
+     * Tell "long double" from the integer types which start with "long",
+     * again without guessing.
+     */
+    private boolean isLongDouble() throws TokenStreamException {
+        return LA(1) == LITERAL_long && LA(2) == LITERAL_double;
+    }
+
+    /**
+     * Get the name of the base type which starts at the next token, e.g.
+     * "unsigned long long", before it is matched.  The base types are
+     * keywords, at most three of them, so they are all in the lookahead.
+     */
+    private String getBaseTypeName() throws TokenStreamException {
+        String name = LT(1).getText();
+        int last = 1;
+        if (LA(1) == LITERAL_unsigned) {
+            last = 2;
+            name += " " + LT(2).getText();
+        }
+        if (LA(last) == LITERAL_long && (LA(last + 1) == LITERAL_long
+                || LA(last + 1) == LITERAL_double)) {
+            name += " " + LT(last + 1).getText();
+        }
+        return name;
+    }
+
+    /**
+     * Get the source position of a token.
+     */
+    private SourcePosition position(Token token) {
+        return new SourcePosition(token.getLine(), token.getColumn());
     }
 
 }
 
-specification[Modeler modeler]
+specification returns [Specification spec = null]
 { 
-	setModeler(modeler);
-	getModeler().addComponent();
+	builder = new DeclarationBuilder(getFilename(), streamingApplier);
+	builder.setSymbolTable(symbols);
 }
-	:   (import_dcl)* (definition)+
+	:   (import_dcl)* (definition { release(currentAST); } )+
+	    { while (resync(true)) { definition(); release(currentAST); } }
+	{ spec = builder.getSpecification(); fileParsed(); }
 	;
+	exception
+	catch [RecognitionException ex] {
+	    // no definition at the start
+	    recover(ex, 0);
+	    while (resync(true)) { definition(); release(currentAST); }
+	    spec = builder.getSpecification();
+	    fileParsed();
+	}
 
 
 definition
+{ int braces = braceDepth; int scopes = builder.getDepth();
+  int depth = entered.size(); }
 	:   (   type_dcl SEMI!
 	    |   const_dcl SEMI!
 	    |   except_dcl SEMI!
-	    |   (("abstract" | "local")? "interface") => interf SEMI!
+	    |   { isDefinition(LITERAL_interface, LITERAL_local) }?
+	        interf SEMI!
 	    |   module SEMI!
-	    |   (("abstract" | "custom")? "valuetype") => value SEMI!
+	    |   { isDefinition(LITERAL_valuetype, LITERAL_custom) }?
+	        value SEMI!
 	    |   type_id_dcl SEMI!
 	    |   type_prefix_dcl SEMI!
-	    |   (("abstract" | "custom")? "eventtype") => event SEMI!
+	    |   { isDefinition(LITERAL_eventtype, LITERAL_custom) }?
+	        event SEMI!
 	    |   component SEMI!
 	    |   home_dcl SEMI!
 	    )
+	    { if (listener != null) listener.definitionParsed(); }
 	;
+	exception
+	catch [RecognitionException ex] {
+	    exitTo(depth);
+	    recover(ex, braces);
+	    builder.closeScopes(scopes);
+	    if (listener != null) listener.definitionParsed();
+	}
 
 module 
-{ String moduleName = null; }
+{ String moduleName = null; SourcePosition pos = position(LT(1));
+  int first = tokenIndex(); }
 	:    "module"^
 	     moduleName=identifier
-	     { sns.pushNamespaceElement(moduleName);
-	       getModeler().addPackage(sns.toString());
-	     }
+	     { builder.beginModule(moduleName, pos);
+	       enter(ParseEventListener.MODULE, moduleName, pos, first); }
 	     LCURLY! d:definition_list RCURLY! 
-	     { sns.popNamespaceElement(); }
+	     { builder.endModule(); exit(); }
 	;
 
 definition_list
-	:   (definition)+
+{ int braces = braceDepth; }
+	:   (definition { release(currentAST); } )+
+	    { while (resync(false)) { definition(); release(currentAST); } }
 	;
+	exception
+	catch [RecognitionException ex] {
+	    // no definition at the start
+	    recover(ex, braces);
+	    while (resync(false)) { definition(); release(currentAST); }
+	}
 
 interf
-{ String classifierName = null; }
+{ String classifierName = null; SourcePosition pos = position(LT(1));
+  String doc = documentation(LT(1)); int first = tokenIndex(); }
 	:   ( "abstract" | "local" )?
 	    "interface"^
 	    classifierName=identifier
 	    // interface_name_dcl
-	    (   interface_dcl[classifierName]
+	    (   interface_dcl[classifierName, pos, doc, first]
 	    |   // forward_dcl
 	    )
 	;
 
-interface_dcl[String classifierName]
-	:   { superclassStack.clear(); }
-	    interface_header
-		{ getModeler().addClass(classifierName, MOD_PUBLIC, getSuperclassName(), null, null); }
+interface_dcl[String classifierName, SourcePosition pos, String doc,
+              int first]
+{ List<String> inherited = null; }
+	:   inherited=interface_header
+		{ builder.beginInterface(classifierName, pos, inherited, doc);
+		  enter(ParseEventListener.INTERFACE, classifierName, pos, first); }
 	    LCURLY! interface_body RCURLY!
-	    { getModeler().popClassifier(); }
+	    { builder.endInterface(); exit(); }
 	;
 
 // forward_dcl
@@ -162,16 +573,18 @@ interface_dcl[String classifierName]
 // 	    identifier
 // 	;
 
-interface_header
+interface_header returns [List<String> inherited = new ArrayList<String>()]
 	:   // interface_name_dcl
-	    ( interface_inheritance_spec )?
+	    ( inherited=interface_inheritance_spec )?
 	;
 
 interface_body
 	:   ( export )*
+	    { while (resync(false)) { export(); } }
 	;
 
 export
+{ int braces = braceDepth; }
 	:   (   type_dcl SEMI!
 	    |   const_dcl SEMI!
 	    |   except_dcl SEMI!
@@ -181,30 +594,33 @@ export
 	    |   type_prefix_dcl SEMI!
 	    )
 	;
+	exception
+	catch [RecognitionException ex] {
+	    recover(ex, braces);
+	}
 
 
-interface_inheritance_spec
-	:   COLON^ scoped_name_list
+interface_inheritance_spec returns [List<String> names = null]
+	:   COLON^ names=scoped_name_list
 	;
 
 interface_name
-{ String sc_name = null; }
-	:   sc_name=scoped_name
-	{ System.out.println("scoped name = " + sc_name); }
+	:   scoped_name
 	;
 
-scoped_name_list
+scoped_name_list returns [List<String> names = new ArrayList<String>()]
 { String scd_name = null; }
-	:    scd_name=scoped_name (COMMA! scoped_name)*
-	{ System.out.println("scoped name = " + scd_name);
-	  if (scd_name != null) superclassStack.add(scd_name); }
+	:    scd_name=scoped_name { names.add(scd_name); }
+	     (COMMA! scd_name=scoped_name { names.add(scd_name); })*
 	;
 
 
 scoped_name returns [String scd_name = null]
-{ String sc_name = null; }
-	:  ( SCOPEOP^ )? IDENT^ /* identifier */ (SCOPEOP! sc_name=identifier)* {scd_name = sc_name; }
-	//( SCOPEOP^ )? identifier (SCOPEOP! identifier)* {scd_name = sc_name; }
+{ String sc_name = null; StringBuffer sb = new StringBuffer(); }
+	:  ( SCOPEOP^ { sb.append("::"); } )?
+	   t:IDENT^ /* identifier */ { sb.append(t.getText()); }
+	   (SCOPEOP! sc_name=identifier { sb.append("::").append(sc_name); })*
+	   { scd_name = sb.toString(); }
 	;
 
 value
@@ -324,7 +740,7 @@ const_dcl
 	;
 
 const_type
-	:   (integer_type) => integer_type
+	:   { !isLongDouble() }? integer_type
 	|   char_type
 	|   wide_char_type
 	|   boolean_type
@@ -468,8 +884,8 @@ positive_int_const
 
 type_dcl
 	:   "typedef"^ type_declarator
-	|   (struct_type) => struct_type
-	|   (union_type) => union_type
+	|   { LA(3) == LCURLY }? struct_type
+	|   { LA(3) == LITERAL_switch }? union_type
 	|   enum_type
 	|   "native"^ simple_declarator
 	|   constr_forward_decl
@@ -491,7 +907,8 @@ simple_type_spec
 	;
 
 base_type_spec
-	:   (floating_pt_type) => floating_pt_type	
+	:   { LA(1) != LITERAL_long || isLongDouble() }?
+	    floating_pt_type
 	|   integer_type	
 	|   char_type		
 	|   wide_char_type		
@@ -719,25 +1136,29 @@ opt_member_list
 	;
 
 op_dcl
-{ String operationName = null; }
-	:   (op_attribute)?
-	    op_type_spec
+{ String operationName = null; String returnType = null;
+  boolean oneway = false; List<String> raises = new ArrayList<String>();
+  SourcePosition pos = position(LT(1)); String doc = documentation(LT(1));
+  int first = tokenIndex(); }
+	:   (op_attribute { oneway = true; })?
+	    returnType=op_type_spec
         operationName=identifier
 	    // IDENT^				// identifier
 	    { paramStack.clear(); }
 	    parameter_dcls
-	    (raises_expr)?
+	    (raises_expr { raises = raisedExceptions; })?
 	    (context_expr)?
-        { System.out.println("paramStack for " + operationName + " = " + paramStack.size());
-        getModeler().addOperation(MOD_PUBLIC, "void", operationName, paramStack, null); }
+        { builder.addOperation(operationName, pos, oneway, returnType, paramStack, raises, doc);
+          enter(ParseEventListener.OPERATION, operationName, pos, first);
+          exit(); }
 	;
 
 op_attribute
 	:   "oneway"
 	;
 
-op_type_spec
-	:   param_type_spec
+op_type_spec returns [String type = "void"]
+	:   param_type_spec { type = paramType; }
 	|   "void"
 	;
 
@@ -750,12 +1171,13 @@ param_dcl_list
 	;
 
 param_dcl
-{ String type = null; String decl = null; }
-	:   ("in"^ | "out"^ | "inout"^)		// param_attribute
-	    param_type_spec decl=simple_declarator
-	    { type = "void";
-	      paramStack.add(new ParameterDeclaration((short) 0, type, decl));
-	    } 
+{ String type = null; String decl = null; short direction = 0; }
+	:   ( "in"^ { direction = ParameterDeclaration.MOD_IN; }
+	    | "out"^ { direction = ParameterDeclaration.MOD_OUT; }
+	    | "inout"^ { direction = ParameterDeclaration.MOD_INOUT; }
+	    )		// param_attribute
+	    param_type_spec { type = paramType; } decl=simple_declarator
+	    { paramStack.add(new ParameterDeclaration(direction, type, decl)); }
 	;
 
 // param_attribute
@@ -765,7 +1187,7 @@ param_dcl
 // 	;
 
 raises_expr
-	:   "raises"^ LPAREN! scoped_name_list RPAREN!
+	:   "raises"^ LPAREN! raisedExceptions=scoped_name_list RPAREN!
 	;
 
 context_expr
@@ -777,10 +1199,10 @@ string_literal_list
 	;
 
 param_type_spec
-	:   base_type_spec
-	|   string_type
-	|   wide_string_type
-	|   scoped_name
+	:   { paramType = getBaseTypeName(); } base_type_spec
+	|   { paramType = getBaseTypeName(); } string_type
+	|   { paramType = getBaseTypeName(); } wide_string_type
+	|   paramType=scoped_name
 	;
 
 fixed_pt_type
@@ -840,7 +1262,8 @@ attr_spec
 
 attr_declarator
 	:   simple_declarator
-	    ( ("getraises" | "setraises") => attr_raises_expr
+	    ( { LA(1) == LITERAL_getraises || LA(1) == LITERAL_setraises }?
+	      attr_raises_expr
 	    | (COMMA! simple_declarator)*
 	    )
 	;
@@ -1054,6 +1477,197 @@ options {
 	charVocabulary='\u0000'..'\uFFFE';
 	k=4;
 }
+{
+    /**
+     * Look up keywords by the perfect hash of {@link Keywords} rather than
+     * in the synchronized literals table.
+     */
+    public int testLiteralsTable(int ttype) {
+        return Keywords.getType(text.getBuffer(), 0, text.length(), ttype);
+    }
+
+    // Receives the documentation comments, may be null.
+    private DocComments docComments;
+
+    /**
+     * Keep the documentation comments for the parser, which must be given
+     * the same instance.
+     *
+     * @param comments The comments, or null to drop them.
+     */
+    void setDocComments(DocComments comments) {
+        docComments = comments;
+    }
+
+    // Whether to skip in bulk, see resetText.
+    private boolean bulkSkip = true;
+
+    // The newlines skipped in bulk, null until the first token.
+    private LineTable skippedLines;
+
+    /**
+     * @param skip False to leave white space and comments to the lexer
+     *             rules even on a SourceBuffer, e.g. to compare the speed.
+     */
+    void setBulkSkip(boolean skip) {
+        bulkSkip = skip;
+    }
+
+    /**
+     * Skip white space, comments and preprocessor directives in bulk with
+     * the {@link Skipper} before each token, instead of one character at a
+     * time through the WS, SL_COMMENT, ML_COMMENT and PREPROC_DIRECTIVE
+     * rules.  This only works on a {@link SourceBuffer}, from other input
+     * the rules still do it.
+     */
+    public void resetText() {
+        InputBuffer input = inputState.getInput();
+        if (bulkSkip && input instanceof SourceBuffer) {
+            skipIgnored((SourceBuffer) input);
+        }
+        if (profile != null) {
+            profile.startMatch();
+        }
+        super.resetText();
+    }
+
+    // Times the matches, null unless profiling.
+    private LexerProfile profile;
+
+    /**
+     * @param theProfile The profile to tell when a match starts, which must
+     *                   be lexing the same SourceBuffer, or null.
+     */
+    void setProfile(LexerProfile theProfile) {
+        profile = theProfile;
+    }
+
+    private void skipIgnored(SourceBuffer source) {
+        char[] chars = source.array();
+        int start = source.position();
+        if (skippedLines == null) {
+            skippedLines = new LineTable(chars, start);
+        }
+        int lineCount = skippedLines.getLineCount();
+        int next = Skipper.skip(chars, start, source.limit(), skippedLines,
+                docComments);
+        if (next == start) {
+            return;
+        }
+        int newLines = skippedLines.getLineCount() - lineCount;
+        int column = getColumn();
+        int p = start;
+        if (newLines > 0) {
+            setLine(getLine() + newLines);
+            column = 1;
+            p = skippedLines.getLineStart(skippedLines.getLineCount());
+        }
+        for (; p < next; p++) {
+            if (chars[p] == '\t') {
+                column = ((column - 1) / tabsize + 1) * tabsize + 1;
+            } else {
+                column++;
+            }
+        }
+        setColumn(column);
+        source.position(next);
+    }
+
+    // The token to make the next one out of, may be null.
+    private Token recycled;
+
+    /**
+     * Lex the next token into a token which the parser is done with.
+     *
+     * @param token The token to recycle, or null for a new one.
+     * @return The next token.
+     * @throws TokenStreamException if the input can't be lexed
+     * @see TokenRing
+     */
+    Token nextToken(Token token) throws TokenStreamException {
+        recycled = token;
+        try {
+            return nextToken();
+        } finally {
+            recycled = null;
+        }
+    }
+
+    /**
+     * Make a {@link LexerToken}, recycled if possible, with the value of
+     * a literal, and attach any documentation comment skipped last to it.
+     * The text of the token is still in the text buffer.
+     */
+    protected Token makeToken(int t) {
+        LexerToken token;
+        if (recycled instanceof LexerToken) {
+            token = (LexerToken) recycled;
+        } else {
+            token = new LexerToken();
+        }
+        recycled = null;
+        token.set(t, inputState.getTokenStartLine(),
+                inputState.getTokenStartColumn());
+        setValue(token, t, text.getBuffer(), text.length());
+        if (docComments != null) {
+            docComments.attach(token);
+        }
+        return token;
+    }
+
+    /*
+     * Decode the value of a literal from its text, like the IDLScanner.
+     */
+    private static void setValue(LexerToken token, int t, char[] chars,
+            int length) {
+        switch (t) {
+        case INT:
+            token.setIntegerValue(Literals.parseInteger(chars, 0, length, 10));
+            break;
+        case OCTAL:
+            token.setIntegerValue(Literals.parseInteger(chars, 0, length, 8));
+            break;
+        case HEX:
+            token.setIntegerValue(Literals.parseInteger(chars, 2, length, 16));
+            break;
+        case FIXED:
+        case FLOAT:
+            // the ! on the d suffix is lost on the subrule, so drop it here
+            int end = length;
+            if (chars[end - 1] == 'd' || chars[end - 1] == 'D') {
+                end--;
+            }
+            if (t == FIXED) {
+                token.setFixedValue(Literals.parseFixed(chars, 0, end),
+                        Literals.getScale(chars, 0, end));
+            } else {
+                token.setFloatValue(Literals.parseFloat(chars, 0, end));
+            }
+            break;
+        case CHAR_LITERAL:
+        case WIDE_CHAR_LITERAL:
+            int escape = Literals.decodeEscape(chars, 0, length);
+            if (escape == -1) {
+                token.setIntegerValue(chars[0]);
+            } else {
+                token.setIntegerValue(Literals.escapeValue(escape));
+                token.setEscaped();
+            }
+            break;
+        case STRING_LITERAL:
+        case WIDE_STRING_LITERAL:
+            for (int i = 0; i < length; i++) {
+                if (chars[i] == '\\') {
+                    token.setEscaped();
+                    break;
+                }
+            }
+            break;
+        default:
+            break;
+        }
+    }
+}
 
 SEMI
 options {
@@ -1295,7 +1909,12 @@ options {
 		|	~('*' | '\n')
 	)*
 	"*/"!
-	{ $setType(Token.SKIP);  }
+	{ $setType(Token.SKIP);
+	  if (docComments != null && text.length() > _begin
+	          && text.charAt(_begin) == '*') {
+	      docComments.add("/*" + $getText + "*/");
+	  }
+	}
 	;
 
 CHAR_LITERAL
@@ -1334,39 +1953,38 @@ options {
 	'L'! STRING_LITERAL
 	;
 
+// The escape sequence is kept as it is, the token decodes it when its
+// text is asked for, see IDLLexer.makeToken.
 protected
 ESC
 options {
   paraphrase = "an escape sequence";
 }
-	:	'\\'!
-		(	'n'		{$setText("\n");}
-		|	't'		{$setText("\t");}
-		|	'v'		{$setText("\013");}
-		|	'b'		{$setText("\b");}
-		|	'r'		{$setText("\r");}
-		|	'f'		{$setText("\r");}
-		|	'a'  		{$setText("\007");}
-		|	'\\'		{$setText("\\");}
-		|	'?'     	{$setText("?");}
-		|	'\''		{$setText("'");}
-		|	'"'		{$setText("\"");}
+	:	'\\'
+		(	'n'
+		|	't'
+		|	'v'
+		|	'b'
+		|	'r'
+		|	'f'
+		|	'a'
+		|	'\\'
+		|	'?'
+		|	'\''
+		|	'"'
 		|	OCTDIGIT
 			(options {greedy=true;}:OCTDIGIT
 			  (options {greedy=true;}:OCTDIGIT)?
 			)?
-			{char realc = (char) Integer.valueOf($getText, 8).intValue(); $setText(realc);}
-		|       'x'! HEXDIGIT
+		|       'x' HEXDIGIT
 			(options {greedy=true;}:HEXDIGIT)?
-			{char realc = (char) Integer.valueOf($getText, 16).intValue(); $setText(realc);}
-		|	'u'!
+		|	'u'
 			HEXDIGIT
 			(options {greedy=true;}:HEXDIGIT
 			  (options {greedy=true;}:HEXDIGIT
 			    (options {greedy=true;}:HEXDIGIT)?
 			  )?
 			)?
-			{char realc = (char) Integer.valueOf($getText, 16).intValue(); $setText(realc);}
 		)
 	;
 
@@ -0,0 +1,410 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the declaration tree built by the parser and its replay into a
+ * {@link DeclarationHandler}.  None of this needs the UML model.
+ */
+public class TestDeclarationTree extends TestCase {
+
+    private static final String SOURCE =
+        "module A {\n"
+        + "  interface Base { };\n"
+        + "  interface Derived : ::A::Base, Other {\n"
+        + "    oneway void ping(in unsigned long long a,\n"
+        + "                     out string b, inout A::Base c)\n"
+        + "      raises (E1, X::E2);\n"
+        + "  };\n"
+        + "  module B { interface Fwd; };\n"
+        + "};\n";
+
+    /**
+     * @param name the name of the test
+     */
+    public TestDeclarationTree(String name) {
+        super(name);
+    }
+
+    private Specification parse(String source) throws Exception {
+        IDLParser parser =
+            new IDLParser(new IDLLexer(new StringReader(source)));
+        parser.setFilename("test.idl");
+        return parser.specification();
+    }
+
+    /**
+     * Test the structure of the tree.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testTree() throws Exception {
+        Specification spec = parse(SOURCE);
+        assertEquals("test.idl", spec.getFileName());
+        assertEquals(1, spec.getDefinitions().size());
+
+        ModuleDeclaration a = (ModuleDeclaration) spec.getDefinitions().get(0);
+        assertEquals("A", a.getName());
+        assertEquals(new SourcePosition(1, 1), a.getPosition());
+        assertEquals(3, a.getDefinitions().size());
+
+        InterfaceDeclaration derived =
+            (InterfaceDeclaration) a.getDefinitions().get(1);
+        assertEquals("Derived", derived.getName());
+        assertEquals(3, derived.getPosition().getLine());
+        assertEquals("[::A::Base, Other]",
+                derived.getInheritedInterfaces().toString());
+
+        OperationDeclaration ping =
+            (OperationDeclaration) derived.getExports().get(0);
+        assertEquals("ping", ping.getName());
+        assertTrue(ping.isOneway());
+        assertEquals("void", ping.getReturnType());
+        assertEquals("[E1, X::E2]", ping.getRaises().toString());
+        List<ParameterDeclaration> params = ping.getParameters();
+        assertEquals(3, params.size());
+        assertEquals("unsigned long long", params.get(0).getType());
+        assertEquals(ParameterDeclaration.MOD_IN,
+                params.get(0).getModifiers());
+        assertEquals("string", params.get(1).getType());
+        assertEquals(ParameterDeclaration.MOD_OUT,
+                params.get(1).getModifiers());
+        assertEquals("A::Base", params.get(2).getType());
+        assertEquals(ParameterDeclaration.MOD_INOUT,
+                params.get(2).getModifiers());
+
+        // forward declarations are not part of the tree
+        ModuleDeclaration b = (ModuleDeclaration) a.getDefinitions().get(2);
+        assertTrue(b.getDefinitions().isEmpty());
+    }
+
+    /*
+     * Create a handler which records the calls made to it.
+     */
+    private static DeclarationHandler recorder(final List<String> calls) {
+        return new DeclarationHandler() {
+            public void addComponent() {
+                calls.add("component");
+            }
+            public void addPackage(String name) {
+                calls.add("package " + name);
+            }
+            public void addClass(String name, short modifiers,
+                    String superclassName, List<String> interfaces,
+
+                    String javadoc, SourcePosition position) {
+                calls.add("class " + name + " " + superclassName);
+            }
+            public void popClassifier() {
+                calls.add("pop");
+            }
+            public Object addOperation(short modifiers, String returnType,
+                    String name, List<ParameterDeclaration> parameters,
+                    String javadoc, SourcePosition position) {
+                calls.add("operation " + returnType + " " + name + " "
+                        + parameters.size());
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Test that the tree is replayed as the grammar actions used to call
+     * the Modeler.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testApply() throws Exception {
+        List<String> calls = new ArrayList<String>();
+        new DeclarationApplier(recorder(calls)).apply(parse(SOURCE));
+
+        assertEquals("[component, package A, class Base null, pop, "
+                + "class Derived Base, operation void ping 3, pop, "
+                + "package A.B]", calls.toString());
+    }
+
+    /**
+     * Test that documentation comments are attached to the declarations
+     * which follow them, with either lexer.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testDocumentation() throws Exception {
+        String source = "/** The module. */\n"
+            + "module M {\n"
+            + "  /**\n"
+            + "   * An interface.\n"
+            + "   */\n"
+            + "  interface I {\n"
+            + "    /* not documentation */ void a();\n"
+            + "    /** Operation b. */ oneway void b();\n"
+            + "    /** Dropped. */ attribute long x;\n"
+            + "    void c();\n"
+            + "  };\n"
+            + "};\n";
+        for (int i = 0; i < 2; i++) {
+            DocComments comments = new DocComments();
+            IDLParser parser;
+            if (i == 0) {
+                IDLLexer lexer = new IDLLexer(new StringReader(source));
+                lexer.setDocComments(comments);
+                parser = new IDLParser(lexer);
+            } else {
+                IDLScanner scanner =
+                    new IDLScanner(new SourceBuffer(source));
+                scanner.setDocComments(comments);
+                parser = new IDLParser(scanner);
+            }
+            parser.setDocComments(comments);
+            ModuleDeclaration m =
+                (ModuleDeclaration) parser.specification()
+                    .getDefinitions().get(0);
+            InterfaceDeclaration interf =
+                (InterfaceDeclaration) m.getDefinitions().get(0);
+            assertEquals("/**\n   * An interface.\n   */",
+                    interf.getDocumentation());
+            List<Declaration> exports = interf.getExports();
+            assertNull(exports.get(0).getDocumentation());
+            assertEquals("/** Operation b. */",
+                    exports.get(1).getDocumentation());
+            assertNull(exports.get(2).getDocumentation());
+        }
+    }
+
+    /**
+     * Test taking the text out of documentation comments.
+     */
+    public void testDocumentationText() {
+        assertEquals("\n An interface.",
+                DocComments.getText("/**\n   * An interface.\n   */"));
+        assertEquals(" One line. *",
+                DocComments.getText("/** One line. */"));
+        assertEquals(" a\n  b\n\n c",
+                DocComments.getText("/** a\n *  b\n *\n * c\n */"));
+        assertNull(DocComments.getText("/**/"));
+        assertNull(DocComments.getText(" /**/ \n"));
+    }
+
+    /**
+     * Test the definitions which the parser tells apart on the next one or
+     * two tokens, which it used to guess.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testDispatch() throws Exception {
+        String source = "const long A = 1; const long double D = 1.5;\n"
+            + "struct P { long double y; long x; }; struct F;\n"
+            + "union U switch (long) { case 1: long a; }; union G;\n"
+            + "abstract interface I { attribute long a getraises (E);\n"
+            + "attribute long b, c; };\n"
+            + "local interface L; valuetype V long; custom valuetype C { };\n"
+            + "abstract eventtype E { };\n";
+        IDLParser parser =
+            new IDLParser(new IDLLexer(new StringReader(source)));
+        parser.specification();
+        assertEquals(" ( const long A 1 ) ( const ( long double ) D 1.5 )"
+                + " ( struct P ( long double ) y long x ) ( struct F )"
+                + " ( union U long ( case 1 long a ) ) ( union G )"
+                + " ( interface abstract I ( attribute long a"
+                + " ( getraises E ) ) ( attribute long b c ) )"
+                + " ( interface local L ) ( valuetype V long )"
+                + " ( custom ( valuetype C ) ) ( abstract ( eventtype E ) )",
+                parser.getAST().toStringList());
+    }
+
+    /**
+     * Test that the parser gives the same declarations without building
+     * the syntax tree.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testWithoutTree() throws Exception {
+        List<String> expected = new ArrayList<String>();
+        new DeclarationApplier(recorder(expected)).apply(parse(SOURCE));
+
+        IDLParser parser =
+            new IDLParser(new IDLLexer(new StringReader(SOURCE)));
+        parser.setBuildAST(false);
+        Specification spec = parser.specification();
+        assertNull(parser.getAST());
+        List<String> calls = new ArrayList<String>();
+        new DeclarationApplier(recorder(calls)).apply(spec);
+        assertEquals(expected, calls);
+
+        parser = new IDLParser(new IDLLexer(new StringReader(SOURCE)));
+        parser.setBuildAST(false);
+        parser.setBuildAST(true);
+        parser.specification();
+        assertNotNull(parser.getAST());
+    }
+
+    /**
+     * Test that streaming makes the same calls as applying the tree.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testStreaming() throws Exception {
+        List<String> expected = new ArrayList<String>();
+        new DeclarationApplier(recorder(expected)).apply(parse(SOURCE));
+
+        List<String> calls = new ArrayList<String>();
+        IDLParser parser =
+            new IDLParser(new IDLLexer(new StringReader(SOURCE)));
+        DeclarationApplier applier = new DeclarationApplier(recorder(calls));
+        parser.setStreamingApplier(applier);
+        applier.begin();
+        Specification spec = parser.specification();
+
+        assertEquals(expected, calls);
+        assertTrue(spec.getDefinitions().isEmpty());
+        assertNull(parser.getAST());
+    }
+
+    /*
+     * Create a listener which records the events.
+     */
+    private static ParseEventListener eventRecorder(
+            final List<String> events) {
+        return new ParseEventListener() {
+            public void declarationEntered(String kind, String name,
+                    int line, int column) {
+                events.add("enter " + kind + " " + name + " " + line + ":"
+                        + column);
+            }
+            public void declarationExited(String kind, String name,
+                    int tokens) {
+                events.add("exit " + kind + " " + name + " " + tokens);
+            }
+            public void syntaxError(Diagnostic diagnostic) {
+                events.add("error " + diagnostic);
+            }
+            public void fileParsed(String fileName, int tokens) {
+                events.add("file " + fileName + " " + tokens);
+            }
+        };
+    }
+
+    /**
+     * Test the events of a parse, which prints nothing.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testEvents() throws Exception {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<String>();
+        try {
+            System.setOut(new PrintStream(printed));
+            IDLParser parser =
+                new IDLParser(new IDLLexer(new StringReader(SOURCE)));
+            parser.setFilename("test.idl");
+            parser.setParseEventListener(eventRecorder(events));
+            parser.specification();
+        } finally {
+            System.setOut(stdout);
+        }
+        assertEquals(0, printed.size());
+        assertEquals("[enter module A 1:1, "
+                + "enter interface Base 2:3, exit interface Base 4, "
+                + "enter interface Derived 3:3, "
+                + "enter operation ping 4:5, exit operation ping 28, "
+                + "exit interface Derived 40, "
+                + "enter module B 8:3, exit module B 7, "
+                + "exit module A 58, file test.idl 59]", events.toString());
+
+        events.clear();
+        IDLParser parser = new IDLParser(new IDLLexer(new StringReader(
+                "module M { interface I { void a(in long); };\n")));
+        parser.setFilename("bad.idl");
+        parser.setDiagnostics(new ArrayList<Diagnostic>());
+        parser.setParseEventListener(eventRecorder(events));
+        parser.specification();
+        assertEquals("[enter module M 1:1, enter interface I 1:12, "
+                + "error bad.idl:1:36: unexpected token: long, "
+                + "exit interface I 11, exit module M 15, "
+                + "error bad.idl:2:1: expecting }, found 'null', "
+                + "file bad.idl 15]", events.toString());
+    }
+
+    /**
+     * Test that the parser skips the definitions and exports with errors
+     * and records the errors.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testRecovery() throws Exception {
+        String source = "module A {\n"
+            + "  interface I { void a(in long); void b(); };\n"
+            + "  garbage;\n"
+            + "  interface J { void c() raises E; };\n"
+            + "};\n"
+            + "interface K { void d(); }; };\n"
+            + "interface L { void e();\n";
+        IDLParser parser =
+            new IDLParser(new IDLLexer(new StringReader(source)));
+        parser.setFilename("test.idl");
+        List<Diagnostic> diagnostics = new ArrayList<Diagnostic>();
+        parser.setDiagnostics(diagnostics);
+        List<String> calls = new ArrayList<String>();
+        new DeclarationApplier(recorder(calls)).apply(parser.specification());
+
+        assertEquals("[component, package A, class I null, "
+                + "operation void b 0, pop, class J null, pop, "
+                + "class K null, operation void d 0, pop, "
+                + "class L null, operation void e 0, pop]",
+                calls.toString());
+        assertEquals(5, diagnostics.size());
+        Diagnostic first = diagnostics.get(0);
+        assertEquals("test.idl", first.getFileName());
+        assertEquals(2, first.getLine());
+        assertEquals(27, first.getColumn());
+        assertEquals("test.idl:2:27: unexpected token: long",
+                first.toString());
+        assertEquals("test.idl:3:3: unexpected token: garbage",
+                diagnostics.get(1).toString());
+        assertEquals("test.idl:4:33: expecting (, found 'E'",
+                diagnostics.get(2).toString());
+        assertEquals("test.idl:6:28: unexpected token: }",
+                diagnostics.get(3).toString());
+        assertEquals(8, diagnostics.get(4).getLine());
+    }
+
+    /**
+     * Test that the parser stops at the first error without a list for the
+     * diagnostics, and how it is described when a file fails.
+     *
+     * @throws Exception if the lexer fails
+     */
+    public void testNoRecovery() throws Exception {
+        try {
+            parse("interface I { void a(in long); };");
+            fail("no syntax error");
+        } catch (antlr.RecognitionException e) {
+            Diagnostic diagnostic = Diagnostic.create("a.idl",
+                    new Exception("File: a.idl", e));
+            assertEquals("a.idl:1:25: unexpected token: long",
+                    diagnostic.toString());
+        }
+        Diagnostic diagnostic = Diagnostic.create("b.idl",
+                new Exception("File: b.idl",
+                        new java.io.IOException("unreadable")));
+        assertEquals(0, diagnostic.getLine());
+        assertEquals("b.idl: unreadable", diagnostic.toString());
+    }
+}
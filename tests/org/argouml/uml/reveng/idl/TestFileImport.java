@@ -0,0 +1,379 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.argouml.kernel.Project;
+import org.argouml.kernel.ProjectManager;
+import org.argouml.model.InitializeModel;
+import org.argouml.model.Model;
+import org.argouml.profile.init.InitProfileSubsystem;
+import org.argouml.taskmgmt.ProgressEvent;
+import org.argouml.taskmgmt.ProgressMonitor;
+import org.argouml.uml.reveng.DummyImportSettings;
+import org.argouml.uml.reveng.ImportInterface.ImportException;
+
+/**
+ * Tests the model an import of several files builds.
+ */
+public class TestFileImport extends TestCase {
+
+    private static boolean isInitialized;
+
+    private File directory;
+
+    /**
+     * @param name the name of the test
+     */
+    public TestFileImport(String name) {
+        super(name);
+        InitializeModel.initializeDefault();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        if (!isInitialized) {
+            new InitProfileSubsystem().init();
+            isInitialized = true;
+        }
+        directory = File.createTempFile("idlimport", "");
+        directory.delete();
+        directory.mkdir();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(directory);
+        super.tearDown();
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                delete(f);
+            }
+        }
+        file.delete();
+    }
+
+    /*
+     * Write a source file below the temporary directory.
+     */
+    private File write(String path, String source) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(source.getBytes("cp1252"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static Project importFiles(IDLFileImport importer,
+            List<File> files) throws ImportException {
+        Project project = ProjectManager.getManager().makeEmptyProject();
+        importer.parseFiles(project, files, new DummyImportSettings(),
+                new NullMonitor());
+        return project;
+    }
+
+    /*
+     * Describe an element and everything it contains, in an order which
+     * doesn't depend on the order they were created in.
+     */
+    private static String describe(Object element, String indent) {
+        StringBuilder sb = new StringBuilder(indent);
+        sb.append(Model.getFacade().getUMLClassName(element)).append(' ')
+            .append(Model.getFacade().getName(element));
+        String position = Model.getFacade().getTaggedValueValue(element,
+                Modeler.SOURCE_POSITION_TAG);
+        if (position != null) {
+            sb.append(" @").append(position);
+        }
+        if (Model.getFacade().isAComponent(element)) {
+            List<String> residents = new ArrayList<String>();
+            for (Iterator it = Model.getFacade().getResidentElements(element)
+                    .iterator(); it.hasNext();) {
+                residents.add(Model.getFacade().getName(
+                        Model.getFacade().getResident(it.next())));
+            }
+            Collections.sort(residents);
+            sb.append(" residents ").append(residents);
+        }
+        sb.append('\n');
+        List<String> children = new ArrayList<String>();
+        for (Object child : Model.getFacade().getOwnedElements(element)) {
+            children.add(describe(child, indent + "  "));
+        }
+        if (Model.getFacade().isAClassifier(element)) {
+            for (Object feature : Model.getFacade().getFeatures(element)) {
+                children.add(describe(feature, indent + "  "));
+            }
+        }
+        Collections.sort(children);
+        for (String child : children) {
+            sb.append(child);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test that parsing the files concurrently builds the same model, and
+     * finds the same problems, as parsing them one after the other.
+     *
+     * @throws Exception if the import fails
+     */
+    public void testConcurrentImport() throws Exception {
+        List<File> files = new ArrayList<File>();
+        for (int i = 0; i < 8; i++) {
+            files.add(write("m" + i + ".idl", "module M" + i + " {\n"
+                    + "  interface I" + i + " { void op(in long a); };\n"
+                    + "  module N { interface J : ::M" + i + "::I" + i
+                    + " { long f(); }; };\n"
+                    + "};\n"));
+        }
+        files.add(write("bad.idl", "module X { interface Y { void a(in long); };"
+                + "\n  interface Z { }; };\n"));
+        files.add(write("copy/m0.idl", "module M0 {\n"
+                + "  interface I0 { void op(in long a); };\n"
+                + "  module N { interface J : ::M0::I0 { long f(); }; };\n"
+                + "};\n"));
+
+        IDLFileImport sequential = new IDLFileImport();
+        Project expected = importFiles(sequential, files);
+        IDLFileImport concurrent = new IDLFileImport();
+        concurrent.setThreadCount(4);
+        Project actual = importFiles(concurrent, files);
+
+        assertEquals(describe(expected.getModel(), ""),
+                describe(actual.getModel(), ""));
+        assertEquals(sequential.getDiagnostics().toString(),
+                concurrent.getDiagnostics().toString());
+        assertEquals("[bad.idl:1:36: unexpected token: long]",
+                concurrent.getDiagnostics().toString());
+        assertEquals(1, concurrent.getDuplicateCount());
+    }
+
+    /**
+     * Test that a single file parsed from a stream still fails on the first
+     * syntax error, instead of being imported in part.
+     *
+     * @throws Exception if the import fails
+     */
+    public void testParseFileThrows() throws Exception {
+        IDLFileImport importer = new IDLFileImport();
+        Project project = importFiles(importer,
+                Collections.<File>emptyList());
+        try {
+            importer.parseFile(new ByteArrayInputStream(
+                    "module X { interface Y { void a(in long); }; };"
+                    .getBytes("UTF-8")), "dir/bad.idl");
+            fail("Syntax error not reported");
+        } catch (ImportException e) {
+            assertTrue(e.getMessage().startsWith("File: bad.idl"));
+        }
+        assertNull(Model.getFacade().lookupIn(project.getModel(), "X"));
+
+        importer.parseFile(new ByteArrayInputStream(
+                "module X { interface Y { }; };".getBytes("UTF-8")),
+                "dir/good.idl");
+        assertNotNull(Model.getFacade().lookupIn(project.getModel(), "X"));
+        assertTrue(importer.getDiagnostics().isEmpty());
+    }
+
+    /**
+     * Test that a copy of a file gets its own component, like any other
+     * file, although its classifiers are only applied once.
+     *
+     * @throws Exception if the import fails
+     */
+    public void testCopies() throws Exception {
+        String source = "module M { interface I { void op(); }; };\n";
+        File first = write("a/orb.idl", source);
+        File copy = write("b/orb_copy.idl", source);
+        IDLFileImport importer = new IDLFileImport();
+        Project project = importFiles(importer, Arrays.asList(first, copy));
+        assertEquals(1, importer.getDuplicateCount());
+
+        Object module = Model.getFacade().lookupIn(project.getModel(), "M");
+        Object component = Model.getFacade().lookupIn(module, "orb.idl");
+        Object copyComponent =
+            Model.getFacade().lookupIn(module, "orb_copy.idl");
+        assertNotNull(component);
+        assertNotNull(copyComponent);
+        // as when the copy is applied in full: a classifier has one residence
+        assertEquals("Component orb.idl residents [I]\n",
+                describe(component, ""));
+        assertEquals("Component orb_copy.idl residents []\n",
+                describe(copyComponent, ""));
+    }
+
+    /**
+     * Test that a classifier which only moved in its file isn't applied
+     * again, but gets the new positions.
+     *
+     * @throws Exception if the import fails
+     */
+    public void testMovedDeclaration() throws Exception {
+        File file = write("moved.idl",
+                "module M { interface I { void op(in long a); }; };\n");
+        List<File> files = Collections.singletonList(file);
+        IDLFileImport importer = new IDLFileImport();
+        importer.setIncremental(true);
+        Project project = importFiles(importer, files);
+        Object module = Model.getFacade().lookupIn(project.getModel(), "M");
+        Object classifier = Model.getFacade().lookupIn(module, "I");
+        Object operation =
+            Model.getFacade().getOperations(classifier).iterator().next();
+        Object parameter =
+            Model.getFacade().getParameters(operation).iterator().next();
+        assertEquals("Class I @1:12\n  Operation op @1:26\n",
+                describe(classifier, ""));
+        String fingerprint = Model.getFacade().getTaggedValueValue(
+                classifier, IncrementalImport.FINGERPRINT_TAG);
+
+        write("moved.idl", "// a new first line\n"
+                + "module M {\n  interface I { void op(in long a); };\n};\n");
+        importer.parseFiles(project, files, new DummyImportSettings(),
+                new NullMonitor());
+
+        assertSame(classifier, Model.getFacade().lookupIn(module, "I"));
+        assertEquals("Class I @3:3\n  Operation op @3:17\n",
+                describe(classifier, ""));
+        assertEquals(fingerprint, Model.getFacade().getTaggedValueValue(
+                classifier, IncrementalImport.FINGERPRINT_TAG));
+        // applying the operation again would have replaced its parameters
+        assertSame(parameter,
+                Model.getFacade().getParameters(operation).iterator().next());
+    }
+
+    /**
+     * Test a cycle of a watch session: a file changes and another one is
+     * deleted while a copy of it is left.
+     *
+     * @throws Exception if the import fails
+     */
+    public void testWatchCycle() throws Exception {
+        String source = "module M { interface I { }; interface J { }; };\n";
+        File original = write("a/orb.idl", source);
+        File copy = write("b/copy.idl", source);
+        File other = write("c/other.idl", "module M { interface K { }; };\n");
+        final IDLFileImport importer = new IDLFileImport();
+        final List<String> parsed = new ArrayList<String>();
+        importer.setParseEventListener(new ParseEventListener() {
+            public void declarationEntered(String kind, String name,
+                    int line, int column) {
+            }
+
+            public void declarationExited(String kind, String name,
+                    int tokens) {
+            }
+
+            public void syntaxError(Diagnostic diagnostic) {
+            }
+
+            public void fileParsed(String fileName, int tokens) {
+                parsed.add(fileName);
+            }
+        });
+        importer.setIncremental(true);
+        importer.beginSession();
+        SourceWatcher watcher = new SourceWatcher(
+                Collections.singletonList(directory), new FileFilter() {
+                    public boolean accept(File file) {
+                        return importer.isParseable(file);
+                    }
+                }, 10, 50);
+        Project project =
+            importFiles(importer, Arrays.asList(original, copy, other));
+        assertEquals(Arrays.asList("orb.idl", "other.idl"), parsed);
+
+        write("c/other.idl", "module M { interface K2 { }; };\n");
+        assertTrue(original.delete());
+        List<File> changed = watcher.awaitChanges();
+        assertEquals(Collections.singletonList(other), changed);
+        assertEquals(Collections.singletonList(original),
+                watcher.getDeleted());
+        List<File> again = importer.removeFiles(project, watcher.getDeleted());
+        // the copy declares the classifiers removed with the original
+        assertEquals(Collections.singletonList(copy), again);
+        List<File> files = new ArrayList<File>(changed);
+        files.addAll(again);
+        importer.parseFiles(project, files, new DummyImportSettings(),
+                new NullMonitor());
+        importer.endSession();
+
+        // the copy's contents were seen before
+        assertEquals(Arrays.asList("orb.idl", "other.idl", "other.idl"),
+                parsed);
+        Object module = Model.getFacade().lookupIn(project.getModel(), "M");
+        assertNull(Model.getFacade().lookupIn(module, "orb.idl"));
+        assertNull(Model.getFacade().lookupIn(module, "K"));
+        assertNotNull(Model.getFacade().lookupIn(module, "K2"));
+        assertEquals("Component copy.idl residents [I, J]\n",
+                describe(Model.getFacade().lookupIn(module, "copy.idl"), ""));
+        assertEquals("Component other.idl residents [K2]\n",
+                describe(Model.getFacade().lookupIn(module, "other.idl"),
+                        ""));
+    }
+
+    /**
+     * A monitor which ignores the progress.
+     */
+    private static class NullMonitor implements ProgressMonitor {
+
+        public void setMaximumProgress(int max) {
+        }
+
+        public void updateProgress(int progress) {
+        }
+
+        public void updateSubTask(String name) {
+        }
+
+        public void updateMainTask(String name) {
+        }
+
+        public boolean isCanceled() {
+            return false;
+        }
+
+        public void notifyMessage(String title, String introduction,
+                String message) {
+        }
+
+        public void notifyNullAction() {
+        }
+
+        public void close() {
+        }
+
+        public void progress(ProgressEvent event) {
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.InputStream;
+
+import junit.framework.TestCase;
+
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * Tests that the ANTLR 4 parser finds the same declarations as the ANTLR 2
+ * one.
+ */
+public class TestIDL4Parser extends TestCase {
+
+    /**
+     * @param name the name of the test
+     */
+    public TestIDL4Parser(String name) {
+        super(name);
+    }
+
+    /*
+     * Describe the declarations with everything the Modeler is given.
+     */
+    private static void describe(Declaration declaration,
+            StringBuilder result) {
+        result.append(declaration).append(' ')
+            .append(declaration.getDocumentation()).append('\n');
+        if (declaration instanceof ModuleDeclaration) {
+            for (Declaration d
+                    : ((ModuleDeclaration) declaration).getDefinitions()) {
+                describe(d, result);
+            }
+        } else if (declaration instanceof InterfaceDeclaration) {
+            InterfaceDeclaration interf = (InterfaceDeclaration) declaration;
+            result.append(interf.getInheritedInterfaces()).append('\n');
+            for (Declaration d : interf.getExports()) {
+                describe(d, result);
+            }
+        } else if (declaration instanceof OperationDeclaration) {
+            OperationDeclaration op = (OperationDeclaration) declaration;
+            result.append(op.isOneway()).append(' ')
+                .append(op.getReturnType()).append(' ')
+                .append(op.getRaises()).append('\n');
+            for (ParameterDeclaration p : op.getParameters()) {
+                result.append(p.getModifiers()).append(' ')
+                    .append(p.getType()).append(' ')
+                    .append(p.getName()).append('\n');
+            }
+        }
+    }
+
+    private static String describe(Specification spec) {
+        StringBuilder result = new StringBuilder();
+        for (Declaration d : spec.getDefinitions()) {
+            describe(d, result);
+        }
+        return result.toString();
+    }
+
+    private static void assertSameDeclarations(String source)
+        throws Exception {
+        DocComments comments = new DocComments();
+        IDLScanner scanner = new IDLScanner(new SourceBuffer(source));
+        scanner.setDocComments(comments);
+        IDLParser parser = new IDLParser(scanner);
+        parser.setDocComments(comments);
+        String expected = describe(parser.specification());
+
+        SourceBuffer buffer = new SourceBuffer(source);
+        Specification spec =
+            IDL4DeclarationListener.parse(buffer, "test.idl", null, null);
+        assertEquals(expected, describe(spec));
+        assertEquals("test.idl", spec.getFileName());
+        assertEquals(buffer.limit(), buffer.position());
+    }
+
+    /**
+     * Test the declarations of the file also used by the import test.
+     *
+     * @throws Exception if either parser fails
+     */
+    public void testFile() throws Exception {
+        InputStream is = TestIDL4Parser.class.getResourceAsStream("test.idl");
+        SourceBuffer source = SourceBuffer.read(is, "UTF-8");
+        assertSameDeclarations(new String(source.array(), source.position(),
+                source.limit() - source.position()));
+    }
+
+    /**
+     * Test positions after tabs, escaped identifiers and documentation.
+     *
+     * @throws Exception if either parser fails
+     */
+    public void testDetails() throws Exception {
+        assertSameDeclarations("#include <orb.idl>\n"
+            + "/** The module. */\n"
+            + "module _M {\n"
+            + "\t/**\n"
+            + "\t * An interface.\n"
+            + "\t */\n"
+            + "\tinterface\t_I : ::_M::J, K {\n"
+            + "\t\t/* not documentation */ void a();\n"
+            + "\t\t/** Operation b. */ oneway void b(in long _x);\n"
+            + "\t\t/** Dropped. */ attribute long x;\n"
+            + "\t\t// a comment\n"
+            + "\t\tunsigned long long c(out string s, inout ::K k,\n"
+            + "\t\t\tin long double d) raises (E1, _M::E2);\n"
+            + "\t};\n"
+            + "};\n");
+    }
+
+    /**
+     * Test that a syntax error stops the parse and tells where it is.
+     */
+    public void testSyntaxError() {
+        try {
+            IDL4DeclarationListener.parse(
+                    new SourceBuffer("module M {\n  interface I {\n"
+                            + "    void a(in long);\n  };\n};\n"),
+                    "bad.idl", null, null);
+            fail("no syntax error");
+        } catch (ParseCancellationException e) {
+            antlr.RecognitionException cause =
+                (antlr.RecognitionException) e.getCause();
+            assertEquals("bad.idl", cause.getFilename());
+            assertEquals(3, cause.getLine());
+            assertEquals(19, cause.getColumn());
+        }
+    }
+}
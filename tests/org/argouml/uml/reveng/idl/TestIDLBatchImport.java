@@ -0,0 +1,146 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.argouml.model.InitializeModel;
+
+/**
+ * Tests the command line of the batch importer.
+ */
+public class TestIDLBatchImport extends TestCase {
+
+    private File directory;
+
+    private ByteArrayOutputStream out;
+
+    private ByteArrayOutputStream err;
+
+    /**
+     * @param name the name of the test
+     */
+    public TestIDLBatchImport(String name) {
+        super(name);
+        InitializeModel.initializeDefault();
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("idlbatch", "");
+        directory.delete();
+        directory.mkdir();
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    private File write(String name, String source) throws IOException {
+        File file = new File(directory, name);
+        OutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(source.getBytes("UTF-8"));
+        } finally {
+            stream.close();
+        }
+        return file;
+    }
+
+    private int execute(String... args) {
+        return IDLBatchImport.execute(args, new PrintStream(out, true),
+                new PrintStream(err, true));
+    }
+
+    /**
+     * Test that the options are passed on to the importer.
+     */
+    public void testParseArguments() {
+        IDLBatchImport batch = new IDLBatchImport(new PrintStream(out),
+                new PrintStream(err));
+        batch.parseArguments(new String[] {
+            "-threads", "3", "-encoding", "cp1252", "-o", "model.xmi",
+            "-stream", "2", "-fastlexer", "-antlr4", "-quiet",
+            "a.idl", "dir",
+        });
+        IDLFileImport importer = batch.getImporter();
+        assertEquals(3, importer.getThreadCount());
+        assertEquals("cp1252", importer.getInputSourceEncoding());
+        assertEquals(2L * 1024 * 1024, importer.getStreamingThreshold());
+        assertTrue(importer.isFastLexer());
+        assertTrue(importer.isAntlr4Parser());
+        assertEquals(new File("model.xmi"), batch.getOutput());
+        assertEquals(Arrays.asList(new File("a.idl"), new File("dir")),
+                batch.getInputs());
+    }
+
+    /**
+     * Test that an invalid command line prints the usage and gives exit
+     * status 2.
+     */
+    public void testInvalidArguments() {
+        assertEquals(2, execute());
+        assertTrue(err.toString().startsWith("No files given"));
+        assertTrue(err.toString().contains(IDLBatchImport.USAGE));
+
+        err.reset();
+        assertEquals(2, execute("-bogus", "a.idl"));
+        assertTrue(err.toString().startsWith("Unknown option: -bogus"));
+
+        err.reset();
+        assertEquals(2, execute("-threads", "x", "a.idl"));
+        assertTrue(err.toString().startsWith(
+                "Invalid value for -threads: x"));
+
+        err.reset();
+        assertEquals(2, execute("a.idl", "-o"));
+        assertTrue(err.toString().startsWith("Missing value for -o"));
+    }
+
+    /**
+     * Test the exit status of an import with and without errors in the
+     * files.
+     *
+     * @throws Exception if the files can't be written
+     */
+    public void testExitStatus() throws Exception {
+        File good = write("good.idl", "module M { interface I { }; };\n");
+        File output = new File(directory, "model.xmi");
+        assertEquals(0, execute("-quiet", "-o", output.getPath(),
+                good.getPath()));
+        assertTrue(output.length() > 0);
+        assertTrue(out.toString().contains("Imported 1 files"));
+        assertEquals("", err.toString());
+
+        File bad = write("bad.idl", "module X { interface Y { ");
+        assertEquals(1, execute("-quiet", good.getPath(), bad.getPath()));
+        assertTrue(out.toString().contains("bad.idl:1:"));
+    }
+}
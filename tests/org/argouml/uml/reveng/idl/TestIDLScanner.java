@@ -0,0 +1,389 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import junit.framework.TestCase;
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+
+/**
+ * Tests for the {@link IDLScanner}, which must give the same tokens as the
+ * generated {@link IDLLexer}, at the same positions except after a newline
+ * in a literal.
+ */
+public class TestIDLScanner extends TestCase {
+
+    /**
+     * @param name the name of the test
+     */
+    public TestIDLScanner(String name) {
+        super(name);
+    }
+
+    private static void assertSameTokens(String source) throws Exception {
+        TokenStream expected = new IDLLexer(new SourceBuffer(source));
+        TokenStream actual = new IDLScanner(new SourceBuffer(source));
+        for (int i = 0;; i++) {
+            Token expectedToken = expected.nextToken();
+            Token actualToken = actual.nextToken();
+            String message = "token " + i + ": " + expectedToken;
+            assertEquals(message, expectedToken.getType(),
+                    actualToken.getType());
+            assertEquals(message, expectedToken.getText(),
+                    actualToken.getText());
+            assertEquals(message, expectedToken.getLine(),
+                    actualToken.getLine());
+            assertEquals(message, expectedToken.getColumn(),
+                    actualToken.getColumn());
+            if (expectedToken.getType() == Token.EOF_TYPE) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Test the tokens of the test file.
+     *
+     * @throws Exception if the file can't be read or lexed
+     */
+    public void testFile() throws Exception {
+        InputStream is = TestIDLScanner.class.getResourceAsStream(
+                "test.idl");
+        assertNotNull(is);
+        try {
+            assertSameTokens(SourceBuffer.read(is, "UTF-8").getLAChars());
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Test every keyword of the grammar, which must all be known to
+     * {@link Keywords}.
+     *
+     * @throws Exception if a keyword can't be lexed
+     */
+    public void testKeywords() throws Exception {
+        StringBuilder source = new StringBuilder();
+        for (Field field : IDLTokenTypes.class.getFields()) {
+            if (field.getName().startsWith("LITERAL_")) {
+                char[] keyword = field.getName().substring(8).toCharArray();
+                assertEquals(field.getInt(null), Keywords.getType(keyword, 0,
+                        keyword.length, IDLTokenTypes.IDENT));
+                source.append(keyword).append('\n');
+            }
+        }
+        assertSameTokens(source.toString());
+        assertSameTokens("modules _module Module in2 L Lx");
+        char[] buffer = "xinterfacex".toCharArray();
+        assertEquals(IDLTokenTypes.LITERAL_interface,
+                Keywords.getType(buffer, 1, 9, IDLTokenTypes.IDENT));
+        assertEquals(-1, Keywords.find(buffer, 1, 8));
+    }
+
+    /**
+     * Test literals, operators, comments and the columns after tabs.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testLiterals() throws Exception {
+        assertSameTokens("0 00 0d 017 0x1F 0XaB 7 42 1.5 1. .25 1e10 1.5E-3 "
+                + "0.5 0.5e3 0.5d 12d 1.5D\n"
+                + "'a' '\\n' '\\'' '\\101' '\\x41' '\\u00e9' L'b'\n"
+                + "\"\" \"plain\" \"a\\tb\\\\c\\\"d\\?\\7\\12z\" L\"w\"\n"
+                + "a::b : < << > >> ; ? ( ) [ ] { } | ^ & , . = ! / + - ~ "
+                + "* %\n"
+                + "\tx\t\ty  \tz // comment\t\n"
+                + "# pragma\n"
+                + "/* one\n * two\t*/ a /* ** */ b /**/ c\r\n");
+    }
+
+    /**
+     * Test that identifiers share one instance when a symbol table is used.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testSymbolTable() throws Exception {
+        SymbolTable symbols = new SymbolTable();
+        IDLScanner scanner = new IDLScanner(new SourceBuffer("name _name"));
+        scanner.setSymbolTable(symbols);
+        String first = scanner.nextToken().getText();
+        String second = scanner.nextToken().getText();
+        assertEquals("name", first);
+        assertSame(first, second);
+        assertSame(first, symbols.intern(new String("name")));
+        assertEquals(1, symbols.size());
+        for (int i = 0; i < 1000; i++) {
+            symbols.intern("n" + i);
+        }
+        assertEquals(1001, symbols.size());
+        assertSame(first, symbols.intern("name".toCharArray(), 0, 4));
+    }
+
+    /**
+     * Test that tokens refer to their text in the source.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testSourceTokens() throws Exception {
+        String source = "  name; \"a\\tb\" _x";
+        IDLScanner scanner = new IDLScanner(new SourceBuffer(source));
+        SourceToken name = (SourceToken) scanner.nextToken();
+        assertEquals(2, name.getOffset());
+        assertEquals(4, name.getLength());
+        SourceToken semi = (SourceToken) scanner.nextToken();
+        assertEquals(6, semi.getOffset());
+        assertEquals(";", semi.getText());
+        SourceToken string = (SourceToken) scanner.nextToken();
+        assertEquals(9, string.getOffset());
+        assertEquals(4, string.getLength());
+        assertEquals("a\tb", string.getText());
+        SourceToken escaped = (SourceToken) scanner.nextToken();
+        assertEquals(16, escaped.getOffset());
+        assertEquals("x", escaped.getText());
+        assertEquals("name", name.getText());
+        assertSame(name.getText(), name.getText());
+    }
+
+    /**
+     * Test that skipping white space and comments in bulk gives the same
+     * tokens as the lexer rules.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testBulkSkip() throws Exception {
+        String source = "  \t/* a\n\t* b */ x /** doc\n */\n\ty // c\t\n"
+            + "#pragma p\r\n  \t\t z /*\n*/\t/**/ w\n\n";
+        IDLLexer rules = new IDLLexer(new SourceBuffer(source));
+        rules.setBulkSkip(false);
+        DocComments expectedComments = new DocComments();
+        rules.setDocComments(expectedComments);
+        IDLLexer bulk = new IDLLexer(new SourceBuffer(source));
+        DocComments actualComments = new DocComments();
+        bulk.setDocComments(actualComments);
+        for (;;) {
+            Token expected = rules.nextToken();
+            Token actual = bulk.nextToken();
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(expectedComments.get(expected),
+                    actualComments.get(actual));
+            if (expected.getType() == Token.EOF_TYPE) {
+                break;
+            }
+        }
+        assertSameTokens(source);
+
+        // a comment which doesn't end is left to the rules
+        IDLLexer open = new IDLLexer(new SourceBuffer("a\n/* b\n c"));
+        assertEquals("a", open.nextToken().getText());
+        try {
+            open.nextToken();
+            fail("No error for a comment which doesn't end");
+        } catch (TokenStreamException e) {
+            assertTrue(e.toString(), e.toString().startsWith("line 3:"));
+        }
+    }
+
+    /**
+     * Test that the profile of the lexer accounts for every character and
+     * tells the dropped types apart.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testLexerProfile() throws Exception {
+        String source = "// c\n#pragma p\n/* d */ interface A {};\n";
+        LexerProfile profile = new LexerProfile();
+        profile.lex(new SourceBuffer(source), null);
+        assertEquals(1, profile.getFileCount());
+        assertEquals(source.length(), profile.getTotalCharacters());
+        assertEquals(1, profile.getCount(IDLTokenTypes.SL_COMMENT));
+        assertEquals(5, profile.getCharacters(IDLTokenTypes.SL_COMMENT));
+        assertEquals(1, profile.getCount(IDLTokenTypes.PREPROC_DIRECTIVE));
+        assertEquals(1, profile.getCount(IDLTokenTypes.ML_COMMENT));
+        assertEquals(4, profile.getCount(IDLTokenTypes.WS));
+        assertEquals(1, profile.getCount(IDLTokenTypes.LITERAL_interface));
+        assertEquals(9,
+                profile.getCharacters(IDLTokenTypes.LITERAL_interface));
+        long characters = 0;
+        long nanos = 0;
+        for (int type = 0; type <= IDLTokenTypes.ML_COMMENT; type++) {
+            characters += profile.getCharacters(type);
+            nanos += profile.getNanos(type);
+        }
+        assertEquals(source.length(), characters);
+        assertTrue(nanos <= profile.getTotalNanos());
+        double dropped = profile.getShare(IDLTokenTypes.WS,
+                IDLTokenTypes.SL_COMMENT, IDLTokenTypes.ML_COMMENT,
+                IDLTokenTypes.PREPROC_DIRECTIVE);
+        assertTrue(dropped > 0 && dropped < 1);
+    }
+
+    /**
+     * Test that positions are worked out from the offsets of the newlines.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testLineTable() throws Exception {
+        String source = "a\n\tb \"x\ny\" c\r\n\n  \t d";
+        IDLScanner scanner = new IDLScanner(new SourceBuffer(source));
+        int[][] positions = {{1, 1}, {2, 9}, {2, 11}, {3, 4}, {5, 10}, };
+        for (int[] position : positions) {
+            Token token = scanner.nextToken();
+            assertEquals(token.toString(), position[0], token.getLine());
+            assertEquals(token.toString(), position[1], token.getColumn());
+        }
+        LineTable lines = new LineTable(source.toCharArray(), 0);
+        lines.addNewline(1);
+        lines.addNewline(9);
+        assertEquals(3, lines.getLineCount());
+        assertEquals(1, lines.getLine(0));
+        assertEquals(1, lines.getLine(1));
+        assertEquals(2, lines.getLine(2));
+        assertEquals(3, lines.getLine(10));
+        assertEquals(10, lines.getLineStart(3));
+        assertEquals(new SourcePosition(2, 9), lines.getPosition(3));
+    }
+
+    private static void assertLiteralValues(TokenStream lexer)
+        throws TokenStreamException {
+        long[] integers = {0, 42, 15, 31, 171, Long.MAX_VALUE,
+            Literals.NO_VALUE, Literals.NO_VALUE, 'a', '\n', 'A', 'A',
+            '\u00e9', };
+        for (long expected : integers) {
+            ValueToken token = (ValueToken) lexer.nextToken();
+            assertEquals(token.toString(), expected, token.getIntegerValue());
+        }
+        double[] floats = {1.5, .25, 1e10, 1.5E-3, 0.5,
+            12345678901234567890.5, 1e300, };
+        for (double expected : floats) {
+            ValueToken token = (ValueToken) lexer.nextToken();
+            assertEquals(token.toString(), IDLTokenTypes.FLOAT,
+                    token.getType());
+            assertEquals(token.toString(), expected, token.getFloatValue(),
+                    0);
+        }
+        String[] fixed = {"12", "1.50", "0.5", null, };
+        for (String expected : fixed) {
+            ValueToken token = (ValueToken) lexer.nextToken();
+            assertEquals(token.toString(), IDLTokenTypes.FIXED,
+                    token.getType());
+            assertEquals(token.toString(),
+                    expected == null ? null : new BigDecimal(expected),
+                    token.getFixedValue());
+        }
+        String[] strings = {"a\tb", "\u00e9\\", "plain", };
+        for (String expected : strings) {
+            Token token = lexer.nextToken();
+            assertEquals(token.toString(), expected, token.getText());
+        }
+        assertEquals(Token.EOF_TYPE, lexer.nextToken().getType());
+    }
+
+    /**
+     * Test the values which the scanner and the generated lexer decode from
+     * literals.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testLiteralValues() throws Exception {
+        String source =
+            "0 42 017 0x1F 0XaB 9223372036854775807 9223372036854775808 "
+            + "09 'a' '\\n' '\\101' '\\x41' '\\u00e9' "
+            + "1.5 .25 1e10 1.5E-3 0.5d 12345678901234567890.5 1e300 "
+            + "12d 1.50D .5d 123456789012345678901d "
+            + "\"a\\tb\" L\"\\xe9\\\\\" \"plain\"";
+        assertLiteralValues(new IDLScanner(new SourceBuffer(source)));
+        assertLiteralValues(new IDLLexer(new SourceBuffer(source)));
+    }
+
+    /**
+     * Test that floating point literals are converted exactly, also on the
+     * fast path.
+     */
+    public void testParseFloat() {
+        String[] literals = {"0.1", "0.3", "123.456", "9007199254740993",
+            "999999999999999", "1e22", "1e23", "1e-22", "4.35", "0.000123",
+            "1.7976931348623157e308", "4.9e-324", "000.0001250e+5", };
+        for (String literal : literals) {
+            char[] chars = literal.toCharArray();
+            assertEquals(literal, Double.parseDouble(literal),
+                    Literals.parseFloat(chars, 0, chars.length), 0);
+        }
+    }
+
+    /**
+     * Test a comment ending in several stars, which the generated lexer
+     * rejects.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testCommentEndingInStars() throws Exception {
+        TokenStream scanner = new IDLScanner(new SourceBuffer("/** a **/ b"));
+        Token token = scanner.nextToken();
+        assertEquals(IDLTokenTypes.IDENT, token.getType());
+        assertEquals("b", token.getText());
+        assertEquals(Token.EOF_TYPE, scanner.nextToken().getType());
+    }
+
+    /**
+     * Test the one place where the positions differ from the generated
+     * lexer: a newline inside a string or character literal is counted by
+     * the scanner, but not by the generated lexer, which goes on counting
+     * the columns of the line the literal started on.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testNewlineInLiteral() throws Exception {
+        String source = "\"a\nb\" x '\n' y";
+        TokenStream scanner = new IDLScanner(new SourceBuffer(source));
+        TokenStream lexer = new IDLLexer(new SourceBuffer(source));
+        int[][] scannerPositions = {{1, 1}, {2, 4}, {2, 6}, {3, 3}, };
+        int[][] lexerPositions = {{1, 1}, {1, 7}, {1, 9}, {1, 13}, };
+        for (int i = 0; i < scannerPositions.length; i++) {
+            Token expected = lexer.nextToken();
+            Token actual = scanner.nextToken();
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getText(), actual.getText());
+            assertEquals(actual.toString(), scannerPositions[i][0],
+                    actual.getLine());
+            assertEquals(actual.toString(), scannerPositions[i][1],
+                    actual.getColumn());
+            assertEquals(expected.toString(), lexerPositions[i][0],
+                    expected.getLine());
+            assertEquals(expected.toString(), lexerPositions[i][1],
+                    expected.getColumn());
+        }
+    }
+
+    /**
+     * Test that invalid input is reported like the generated lexer does.
+     */
+    public void testErrors() {
+        String[] sources = {"a $", "0x;", "1e+;", "'ab'", "\"open", "_1",
+            "/* open", "\u00e9", };
+        for (String source : sources) {
+            try {
+                TokenStream scanner = new IDLScanner(new SourceBuffer(source));
+                while (scanner.nextToken().getType() != Token.EOF_TYPE) {
+                    // skip
+                }
+                fail("No error for " + source);
+            } catch (TokenStreamException e) {
+                // expected
+            }
+        }
+    }
+}
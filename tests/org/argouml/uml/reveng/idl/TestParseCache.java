@@ -0,0 +1,217 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the {@link ParseCache}.
+ */
+public class TestParseCache extends TestCase {
+
+    private static final String PARSER = IDLParser.class.getName();
+
+    private File directory;
+
+    /**
+     * @param name the name of the test
+     */
+    public TestParseCache(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        directory = File.createTempFile("idlcache", "");
+        directory.delete();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+        super.tearDown();
+    }
+
+    private static Specification parse(String source) throws Exception {
+        return new IDLParser(new IDLLexer(new StringReader(source)))
+            .specification();
+    }
+
+    private static ByteBuffer bytes(String source) throws Exception {
+        return ByteBuffer.wrap(source.getBytes("UTF-8"));
+    }
+
+    /**
+     * Test storing and looking up an entry.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testRoundTrip() throws Exception {
+        String source = "module M { interface I { void op(in long a); }; };";
+        ParseCache cache = new ParseCache(directory, 1024 * 1024);
+        ByteBuffer input = bytes(source);
+        String key = ParseCache.getKey(input, "UTF-8", PARSER);
+        assertEquals(0, input.position());
+        assertFalse(key.equals(ParseCache.getKey(input, "cp1252", PARSER)));
+        assertFalse(key.equals(ParseCache.getKey(input, "UTF-8",
+                IDL4Parser.class.getName())));
+
+        assertNull(cache.get(key, "a.idl"));
+        cache.put(key, parse(source));
+        Specification cached = cache.get(key, "b.idl");
+        assertNotNull(cached);
+        assertEquals("b.idl", cached.getFileName());
+        assertEquals(key, cached.getFingerprint());
+        ModuleDeclaration module =
+            (ModuleDeclaration) cached.getDefinitions().get(0);
+        assertEquals("M", module.getName());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // another process sharing the directory sees the entry
+        assertNotNull(new ParseCache(directory, 1024 * 1024).get(key, "c"));
+    }
+
+    /**
+     * Test that the platform default encoding is part of the key by its
+     * name, so that processes with different defaults sharing a cache
+     * directory don't get each other's declarations.
+     *
+     * @throws Exception if the key can't be computed
+     */
+    public void testEncodingKey() throws Exception {
+        ByteBuffer input = bytes("module M { };");
+        String platform = Charset.defaultCharset().name();
+        String other = "UTF-8".equals(platform) ? "ISO-8859-1" : "UTF-8";
+        String key = ParseCache.getKey(input, null, PARSER);
+        assertEquals(ParseCache.getKey(input, platform, PARSER), key);
+        assertFalse(key.equals(ParseCache.getKey(input, other, PARSER)));
+    }
+
+    /**
+     * Test that every field of the declarations survives the cache.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testDeclarationFields() throws Exception {
+        String source = "module M {\n"
+            + "  /** Docs. */\n"
+            + "  interface I : ::M::J, K {\n"
+            + "    oneway void a(in long x, inout string y, out K z);\n"
+            + "    unsigned long b() raises (E, ::M::F);\n"
+            + "  };\n"
+            + "};\n";
+        ParseCache cache = new ParseCache(directory, 1024 * 1024);
+        String key = ParseCache.getKey(bytes(source), "UTF-8", PARSER);
+        Specification parsed = parse(source);
+        cache.put(key, parsed);
+        Specification cached = cache.get(key, "a.idl");
+        assertEquals(describe(parsed.getDefinitions()),
+                describe(cached.getDefinitions()));
+        assertTrue(describe(cached.getDefinitions()).contains(
+                "OperationDeclaration a at 4:5 null oneway void "
+                + "[256 long x, 768 string y, 512 K z] []"));
+    }
+
+    /**
+     * Test that an entry which isn't in the cache format, such as a planted
+     * or truncated file, is a miss and is removed.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testInvalidEntry() throws Exception {
+        String source = "module M { interface I; };";
+        ParseCache cache = new ParseCache(directory, 1024 * 1024);
+        String key = ParseCache.getKey(bytes(source), null, PARSER);
+        cache.put(key, parse(source));
+        File[] entries = directory.listFiles();
+        assertEquals(1, entries.length);
+        File entry = entries[0];
+        OutputStream out = new FileOutputStream(entry);
+        try {
+            // the start of a Java serialization stream
+            out.write(new byte[] {(byte) 0xac, (byte) 0xed, 0, 5});
+        } finally {
+            out.close();
+        }
+        assertNull(cache.get(key, "a.idl"));
+        assertFalse(entry.exists());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /*
+     * Describe declarations with all their fields.
+     */
+    private static String describe(List<Declaration> declarations) {
+        StringBuilder sb = new StringBuilder();
+        for (Declaration declaration : declarations) {
+            sb.append(declaration).append(' ')
+                .append(declaration.getDocumentation());
+            if (declaration instanceof ModuleDeclaration) {
+                sb.append(" {\n").append(describe(
+                        ((ModuleDeclaration) declaration).getDefinitions()));
+                sb.append("}");
+            } else if (declaration instanceof InterfaceDeclaration) {
+                InterfaceDeclaration iface = (InterfaceDeclaration) declaration;
+                sb.append(' ').append(iface.getInheritedInterfaces());
+                sb.append(" {\n").append(describe(iface.getExports()));
+                sb.append("}");
+            } else {
+                OperationDeclaration op = (OperationDeclaration) declaration;
+                sb.append(op.isOneway() ? " oneway " : " ")
+                    .append(op.getReturnType()).append(" [");
+                for (int i = 0; i < op.getParameters().size(); i++) {
+                    ParameterDeclaration p = op.getParameters().get(i);
+                    sb.append(i > 0 ? ", " : "").append(p.getModifiers())
+                        .append(' ').append(p.getType()).append(' ')
+                        .append(p.getName());
+                }
+                sb.append("] ").append(op.getRaises());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Test that the least recently used entries are evicted.
+     *
+     * @throws Exception if the parser fails
+     */
+    public void testEviction() throws Exception {
+        ParseCache cache = new ParseCache(directory, 1);
+        String[] keys = new String[3];
+        for (int i = 0; i < keys.length; i++) {
+            String source = "module M" + i + " { interface I; };";
+            keys[i] = ParseCache.getKey(bytes(source), null, PARSER);
+            cache.put(keys[i], parse(source));
+        }
+        // with a limit of one byte nothing survives but the lock file
+        for (String key : keys) {
+            assertNull(cache.get(key, "x.idl"));
+        }
+    }
+}
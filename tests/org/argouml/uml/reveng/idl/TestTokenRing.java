@@ -0,0 +1,169 @@
+/* $Id$
+ *****************************************************************************
+ * Copyright (c) 2026 Contributors - see below
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *****************************************************************************
+ */
+
+package org.argouml.uml.reveng.idl;
+
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import antlr.LLkParser;
+import antlr.Token;
+import antlr.TokenStream;
+
+/**
+ * Tests for the {@link TokenRing}, and that the grammar doesn't keep tokens
+ * which the ring recycles.
+ */
+public class TestTokenRing extends TestCase {
+
+    private static final String DOCUMENTED =
+        "/** A module. */ module m {\n"
+        + "  /** An interface. */ interface i : ::m::j {\n"
+        + "    /** An operation. */ oneway void f(in long a, out b c);\n"
+        + "    const long x = 1 + 2 * 3;\n"
+        + "    /** Another one. */ long g() raises (e);\n"
+        + "  };\n"
+        + "};\n";
+
+    /**
+     * @param name the name of the test
+     */
+    public TestTokenRing(String name) {
+        super(name);
+    }
+
+    /**
+     * Test that the lookahead of the ring is that of the parser.
+     *
+     * @throws Exception if the k of the parser can't be read
+     */
+    public void testLookahead() throws Exception {
+        Field k = LLkParser.class.getDeclaredField("k");
+        k.setAccessible(true);
+        IDLParser parser = new IDLParser(new IDLScanner(new SourceBuffer("")));
+        assertEquals(k.getInt(parser), IDLParser.LOOKAHEAD);
+    }
+
+    /**
+     * Test that tokens are recycled, and that the ring keeps what the
+     * parser may go back to after guessing.
+     *
+     * @throws Exception if the source can't be lexed
+     */
+    public void testRecycling() throws Exception {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            source.append("a").append(i).append(' ');
+        }
+        TokenRing ring = new TokenRing(
+                new IDLScanner(new SourceBuffer(source.toString())),
+                IDLParser.LOOKAHEAD);
+        Set<Token> tokens = new HashSet<Token>();
+        for (int i = 0; i < 50; i++) {
+            assertEquals("a" + (i + IDLParser.LOOKAHEAD - 1),
+                    ring.LT(IDLParser.LOOKAHEAD).getText());
+            tokens.add(ring.LT(1));
+            ring.consume();
+        }
+        assertTrue(tokens.size() <= ring.getCapacity());
+
+        int mark = ring.mark();
+        assertEquals("a69", ring.LT(20).getText());
+        ring.consume();
+        ring.rewind(mark);
+        for (int i = 50; i < 70; i++) {
+            assertEquals("a" + i, ring.LT(1).getText());
+            ring.consume();
+        }
+        assertTrue(ring.getCapacity() >= 20);
+    }
+
+    /*
+     * Parse with and without the ring and describe the result.
+     */
+    private static String parse(String source, boolean fastLexer,
+            boolean recycle) throws Exception {
+        DocComments docComments = new DocComments();
+        TokenStream lexer;
+        if (fastLexer) {
+            IDLScanner scanner = new IDLScanner(new SourceBuffer(source));
+            scanner.setDocComments(docComments);
+            lexer = scanner;
+        } else {
+            IDLLexer generated = new IDLLexer(new SourceBuffer(source));
+            generated.setDocComments(docComments);
+            lexer = generated;
+        }
+        IDLParser parser = new IDLParser(lexer);
+        if (recycle) {
+            parser.setTokenRing(new TokenRing(lexer, IDLParser.LOOKAHEAD));
+        }
+        parser.setDocComments(docComments);
+        StringBuilder result = new StringBuilder();
+        describe(result, parser.specification().getDefinitions());
+        result.append(parser.getAST().toStringList());
+        return result.toString();
+    }
+
+    private static void describe(StringBuilder result,
+            Iterable<Declaration> declarations) {
+        for (Declaration declaration : declarations) {
+            result.append(declaration).append(' ')
+                .append(declaration.getDocumentation()).append('\n');
+            if (declaration instanceof ModuleDeclaration) {
+                describe(result,
+                        ((ModuleDeclaration) declaration).getDefinitions());
+            } else if (declaration instanceof InterfaceDeclaration) {
+                InterfaceDeclaration interf =
+                    (InterfaceDeclaration) declaration;
+                result.append(interf.getInheritedInterfaces()).append('\n');
+                describe(result, interf.getExports());
+            } else if (declaration instanceof OperationDeclaration) {
+                OperationDeclaration operation =
+                    (OperationDeclaration) declaration;
+                result.append(operation.getReturnType());
+                for (ParameterDeclaration parameter
+                        : operation.getParameters()) {
+                    result.append(' ').append(parameter.getType())
+                        .append(' ').append(parameter.getName());
+                }
+                result.append(operation.getRaises()).append('\n');
+            }
+        }
+    }
+
+    private static void assertSameParse(String source) throws Exception {
+        assertEquals(parse(source, false, false), parse(source, false, true));
+        assertEquals(parse(source, true, false), parse(source, true, true));
+    }
+
+    /**
+     * Test that the grammar gives the same result with recycled tokens,
+     * which it wouldn't if an action kept a token after the parser has
+     * moved on.
+     *
+     * @throws Exception if the source can't be parsed
+     */
+    public void testGrammarKeepsNoTokens() throws Exception {
+        InputStream is = TestTokenRing.class.getResourceAsStream("test.idl");
+        assertNotNull(is);
+        try {
+            assertSameParse(SourceBuffer.read(is, "UTF-8").getLAChars());
+        } finally {
+            is.close();
+        }
+        assertSameParse(DOCUMENTED);
+        assertTrue(parse(DOCUMENTED, true, true).contains("An operation."));
+    }
+}